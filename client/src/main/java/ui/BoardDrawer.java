@@ -81,7 +81,7 @@ public class BoardDrawer {
             // Grab any move from the list and get the start position
             var move = moves.iterator().next();
 
-            if (move.getStartPosition().equals(new ChessPosition(row, col))) {
+            if (move.getStartPosition().equals(ChessPosition.of(row, col))) {
                 pieceToBeMoved = true;
             }
         }
@@ -94,7 +94,7 @@ public class BoardDrawer {
 
         square.append(colorSquare(row, col, validMoveSquare, pieceToBeMoved)).append(" ");
 
-        var piece = gameBoard.getPiece(new ChessPosition(row, col));
+        var piece = gameBoard.getPiece(ChessPosition.of(row, col));
 
         if (piece != null) {
             square.append(drawPiece(piece, validMoveSquare, pieceToBeMoved));
@@ -328,7 +328,7 @@ public class ChessClient {
         int col = input.charAt(0) - 'a' + 1;
         int row = Integer.parseInt(String.valueOf(input.charAt(1)));
 
-        return new ChessPosition(row, col);
+        return ChessPosition.of(row, col);
     }
 
     private String resign(String... params) throws ResponseException {
@@ -3,6 +3,7 @@ package server.websocket;
 import chess.ChessGame;
 import chess.ChessMove;
 import chess.ChessPiece;
+import chess.GameStatus;
 import chess.InvalidMoveException;
 import dataaccess.mysql.MySqlAuthDAO;
 import dataaccess.mysql.MySqlGameDAO;
@@ -184,13 +185,20 @@ public class WebsocketHandler {
 
                     String otherUsername = getPlayerUsername(otherUserColor, currentGameData);
 
-                    if (currentGame.isInStalemate(otherUserColor)) {
+                    // one pass of move generation covers stalemate, checkmate, and check
+                    GameStatus status = currentGame.getStatus(otherUserColor);
+
+                    if (status.stalemate()) {
                         notifyAllClients("", id, NotificationType.STALEMATE, null);
                         endGame(id);
-                    } else if (currentGame.isInCheckmate(otherUserColor)) {
+                    } else if (status.checkmate()) {
                         notifyAllClients("", id, NotificationType.CHECKMATE, otherUsername);
                         endGame(id);
-                    } else if (currentGame.isInCheck(otherUserColor)) {
+                    } else if (status.repetition() || status.fiftyMoves()) {
+                        String reason = status.repetition() ? "threefold repetition" : "the fifty-move rule";
+                        notifyAllClients("", id, NotificationType.DRAW, reason);
+                        endGame(id);
+                    } else if (status.check()) {
                         notifyAllClients("", id, NotificationType.CHECK, otherUsername);
                     }
 
@@ -352,6 +360,7 @@ public class WebsocketHandler {
                 case CHECK -> msg = String.format("%s is in check!", customMsg);
                 case CHECKMATE -> msg = String.format("%s is in checkmate, game over!", customMsg);
                 case STALEMATE -> msg = "Stalemate, game over!";
+                case DRAW -> msg = String.format("Draw by %s, game over!", customMsg);
                 default -> msg = "Error occurred";
             }
 
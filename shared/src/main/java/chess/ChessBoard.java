@@ -1,5 +1,8 @@
 package chess;
 
+import chess.moves.Bitboards;
+import com.google.gson.annotations.JsonAdapter;
+
 import java.util.Arrays;
 import java.util.Objects;
 
@@ -9,10 +12,24 @@ import java.util.Objects;
  * Note: You can add to this class, but you may not alter
  * signature of the existing methods.
  */
+@JsonAdapter(ChessBoardAdapter.class)
 public class ChessBoard {
 
-    // My chess board is stored as a 8x8 array of chess pieces. At first, it is filled with null spaces.
-    private final ChessPiece[][] board = new ChessPiece[8][8];
+    // My chess board is stored as twelve bitboards, one for each color and piece type, with bit
+    // (row - 1) * 8 + (col - 1) set when that piece sits on that square. At first, they are all empty.
+    private final long[] pieceBitboards = new long[12];
+
+    // Occupancy masks, kept up to date alongside the piece bitboards
+    private final long[] colorBitboards = new long[2];
+    private long occupied;
+
+    // Zobrist key of the pieces on the board, updated with every piece that's set or cleared
+    private long positionKey;
+
+    // Undo stack for makeMove/unmakeMove. Each entry packs the from and to squares, the piece that moved,
+    // the piece that landed (different on a promotion), and the captured piece (+1, so 0 means nothing).
+    private int[] undoStack = new int[16];
+    private int undoCount;
 
     public ChessBoard() {
         // nothing
@@ -25,7 +42,17 @@ public class ChessBoard {
      * @param piece    the piece to add
      */
     public void addPiece(ChessPosition position, ChessPiece piece) {
-        board[position.getRow() - 1][position.getColumn() - 1] = piece;
+        int square = checkedSquare(position);
+
+        // clear out whatever was on the square before
+        int oldPiece = pieceIndexAt(square);
+        if (oldPiece >= 0) {
+            clearSquare(oldPiece, square);
+        }
+
+        if (piece != null) {
+            setSquare(pieceIndex(piece.getTeamColor(), piece.getPieceType()), square);
+        }
     }
 
     /**
@@ -36,7 +63,227 @@ public class ChessBoard {
      * position
      */
     public ChessPiece getPiece(ChessPosition position) {
-        return board[position.getRow() - 1][position.getColumn() - 1];
+        return getPiece(checkedSquare(position));
+    }
+
+    /**
+     * Gets a chess piece on the chessboard by square index
+     *
+     * @param square the square index, from 0 (row 1, column 1) to 63 (row 8, column 8)
+     * @return Either the piece on the square, or null if the square is empty
+     */
+    public ChessPiece getPiece(int square) {
+        Objects.checkIndex(square, 64);
+        int index = pieceIndexAt(square);
+        return index < 0 ? null : ChessPiece.of(index);
+    }
+
+    /**
+     * Moves a piece in place, capturing whatever is on the destination square, and remembers
+     * just enough to take the move back with unmakeMove. This doesn't check that the move is legal.
+     *
+     * @param from      the square index of the piece to move
+     * @param to        the square index to move it to
+     * @param promotion the type a pawn is promoted to, or null if it isn't a promotion
+     */
+    public void makeMove(int from, int to, ChessPiece.PieceType promotion) {
+        int moved = pieceIndexAt(from);
+        if (moved < 0) {
+            throw new IllegalArgumentException("No piece to move on square " + from);
+        }
+        int captured = pieceIndexAt(to);
+        int placed = promotion == null ? moved : (moved / 6) * 6 + promotion.ordinal();
+
+        if (captured >= 0) {
+            clearSquare(captured, to);
+        }
+        clearSquare(moved, from);
+        setSquare(placed, to);
+
+        if (undoCount == undoStack.length) {
+            undoStack = Arrays.copyOf(undoStack, undoCount * 2);
+        }
+        undoStack[undoCount++] = from | to << 6 | moved << 12 | placed << 16 | (captured + 1) << 20;
+    }
+
+    /**
+     * Takes back the last move made with makeMove, putting back any captured piece
+     */
+    public void unmakeMove() {
+        if (undoCount == 0) {
+            throw new IllegalStateException("No move to take back");
+        }
+        int entry = undoStack[--undoCount];
+        int from = entry & 0x3F;
+        int to = (entry >>> 6) & 0x3F;
+        int moved = (entry >>> 12) & 0xF;
+        int placed = (entry >>> 16) & 0xF;
+        int captured = (entry >>> 20) - 1;
+
+        clearSquare(placed, to);
+        setSquare(moved, from);
+        if (captured >= 0) {
+            setSquare(captured, to);
+        }
+    }
+
+    /**
+     * Determines if a square is attacked by a team. Instead of generating the attacking team's moves,
+     * this looks outward from the square itself (knight jumps, pawn diagonals, king steps, then slider
+     * rays) and stops at the first attacker it finds.
+     *
+     * @param square  the square index to look at
+     * @param byColor the attacking team
+     * @return true if any piece of that team attacks the square
+     */
+    public boolean isSquareAttacked(int square, ChessGame.TeamColor byColor) {
+        int base = byColor.ordinal() * 6;
+
+        if ((Bitboards.knightAttacks(square) & pieceBitboards[base + ChessPiece.PieceType.KNIGHT.ordinal()]) != 0) {
+            return true;
+        }
+
+        // a pawn attacks this square if a pawn of the other color standing here would attack the pawn's square
+        var defender = byColor == ChessGame.TeamColor.WHITE ? ChessGame.TeamColor.BLACK : ChessGame.TeamColor.WHITE;
+        if ((Bitboards.pawnAttacks(defender, square) & pieceBitboards[base + ChessPiece.PieceType.PAWN.ordinal()]) != 0) {
+            return true;
+        }
+
+        if ((Bitboards.kingAttacks(square) & pieceBitboards[base + ChessPiece.PieceType.KING.ordinal()]) != 0) {
+            return true;
+        }
+
+        long queens = pieceBitboards[base + ChessPiece.PieceType.QUEEN.ordinal()];
+        long diagonalSliders = pieceBitboards[base + ChessPiece.PieceType.BISHOP.ordinal()] | queens;
+        if ((Bitboards.bishopAttacks(square, occupied) & diagonalSliders) != 0) {
+            return true;
+        }
+
+        long straightSliders = pieceBitboards[base + ChessPiece.PieceType.ROOK.ordinal()] | queens;
+        return (Bitboards.rookAttacks(square, occupied) & straightSliders) != 0;
+    }
+
+    /**
+     * Gets every piece of a team attacking a square, treating the given squares as occupied. Passing an
+     * occupancy different from the board's lets sliders see through pieces, e.g. a king stepping away
+     * along a ray doesn't block it anymore.
+     *
+     * @param square   the square index to look at
+     * @param byColor  the attacking team
+     * @param occupied the squares that block sliders
+     * @return bitboard of every attacker
+     */
+    public long attackersTo(int square, ChessGame.TeamColor byColor, long occupied) {
+        int base = byColor.ordinal() * 6;
+        var defender = byColor == ChessGame.TeamColor.WHITE ? ChessGame.TeamColor.BLACK : ChessGame.TeamColor.WHITE;
+        long queens = pieceBitboards[base + ChessPiece.PieceType.QUEEN.ordinal()];
+
+        return (Bitboards.knightAttacks(square) & pieceBitboards[base + ChessPiece.PieceType.KNIGHT.ordinal()])
+                | (Bitboards.pawnAttacks(defender, square) & pieceBitboards[base + ChessPiece.PieceType.PAWN.ordinal()])
+                | (Bitboards.kingAttacks(square) & pieceBitboards[base + ChessPiece.PieceType.KING.ordinal()])
+                | (Bitboards.bishopAttacks(square, occupied) & (pieceBitboards[base + ChessPiece.PieceType.BISHOP.ordinal()] | queens))
+                | (Bitboards.rookAttacks(square, occupied) & (pieceBitboards[base + ChessPiece.PieceType.ROOK.ordinal()] | queens));
+    }
+
+    /**
+     * Determines if a position is attacked by a team
+     *
+     * @param position the position to look at
+     * @param byColor  the attacking team
+     * @return true if any piece of that team attacks the position
+     */
+    public boolean isSquareAttacked(ChessPosition position, ChessGame.TeamColor byColor) {
+        return isSquareAttacked(checkedSquare(position), byColor);
+    }
+
+    // The square index of a position, checked before anything uses it: 1L << square wraps around, so
+    // an off-board position like (9, 1) would otherwise quietly read or change a1
+    private static int checkedSquare(ChessPosition position) {
+        int row = position.getRow();
+        int col = position.getColumn();
+        if (row < 1 || row > 8 || col < 1 || col > 8) {
+            throw new IndexOutOfBoundsException(position + " is off the board");
+        }
+        return Bitboards.square(row, col);
+    }
+
+    // Index of the piece bitboard holding a square, or -1 if the square is empty
+    int pieceIndexAt(int square) {
+        long bit = 1L << square;
+        if ((occupied & bit) == 0) {
+            return -1;
+        }
+
+        int first = (colorBitboards[0] & bit) != 0 ? 0 : 6;
+        for (int i = first; i < first + 5; i++) {
+            if ((pieceBitboards[i] & bit) != 0) {
+                return i;
+            }
+        }
+        return first + 5;
+    }
+
+    private void setSquare(int pieceIndex, int square) {
+        long bit = 1L << square;
+        pieceBitboards[pieceIndex] |= bit;
+        colorBitboards[pieceIndex / 6] |= bit;
+        occupied |= bit;
+        positionKey ^= Zobrist.pieceSquare(pieceIndex, square);
+    }
+
+    private void clearSquare(int pieceIndex, int square) {
+        long bit = ~(1L << square);
+        pieceBitboards[pieceIndex] &= bit;
+        colorBitboards[pieceIndex / 6] &= bit;
+        occupied &= bit;
+        positionKey ^= Zobrist.pieceSquare(pieceIndex, square);
+    }
+
+    /**
+     * @return bitboard of every piece of a given color and type
+     */
+    public long getPieces(ChessGame.TeamColor color, ChessPiece.PieceType type) {
+        return pieceBitboards[pieceIndex(color, type)];
+    }
+
+    /**
+     * @return bitboard of every piece of a given color
+     */
+    public long getPieces(ChessGame.TeamColor color) {
+        return colorBitboards[color.ordinal()];
+    }
+
+    /**
+     * @return bitboard of every occupied square
+     */
+    public long getOccupied() {
+        return occupied;
+    }
+
+    /**
+     * Gets the Zobrist key of the pieces on the board. It's kept up to date as pieces are added,
+     * moved, and taken back, so this is O(1). It doesn't include whose turn it is (see ChessGame).
+     *
+     * @return a 64-bit key that's the same for boards holding the same pieces on the same squares
+     */
+    public long positionKey() {
+        return positionKey;
+    }
+
+    // Index of a piece's bitboard: white pieces take 0-5 and black pieces 6-11, in PieceType order
+    static int pieceIndex(ChessGame.TeamColor color, ChessPiece.PieceType type) {
+        return color.ordinal() * 6 + type.ordinal();
+    }
+
+    /**
+     * Removes every piece and forgets every move made, so one board can be refilled over and over
+     */
+    public void clear() {
+        Arrays.fill(pieceBitboards, 0);
+        Arrays.fill(colorBitboards, 0);
+        occupied = 0;
+        positionKey = 0;
+        undoCount = 0;
     }
 
     /**
@@ -46,31 +293,31 @@ public class ChessBoard {
     public void resetBoard() {
         // add white pieces
         var white = ChessGame.TeamColor.WHITE;
-        addPiece(new ChessPosition(1, 1), new ChessPiece(white, ChessPiece.PieceType.ROOK));
-        addPiece(new ChessPosition(1, 2), new ChessPiece(white, ChessPiece.PieceType.KNIGHT));
-        addPiece(new ChessPosition(1, 3), new ChessPiece(white, ChessPiece.PieceType.BISHOP));
-        addPiece(new ChessPosition(1, 4), new ChessPiece(white, ChessPiece.PieceType.QUEEN));
-        addPiece(new ChessPosition(1, 5), new ChessPiece(white, ChessPiece.PieceType.KING));
-        addPiece(new ChessPosition(1, 6), new ChessPiece(white, ChessPiece.PieceType.BISHOP));
-        addPiece(new ChessPosition(1, 7), new ChessPiece(white, ChessPiece.PieceType.KNIGHT));
-        addPiece(new ChessPosition(1, 8), new ChessPiece(white, ChessPiece.PieceType.ROOK));
+        addPiece(ChessPosition.of(1, 1), ChessPiece.of(white, ChessPiece.PieceType.ROOK));
+        addPiece(ChessPosition.of(1, 2), ChessPiece.of(white, ChessPiece.PieceType.KNIGHT));
+        addPiece(ChessPosition.of(1, 3), ChessPiece.of(white, ChessPiece.PieceType.BISHOP));
+        addPiece(ChessPosition.of(1, 4), ChessPiece.of(white, ChessPiece.PieceType.QUEEN));
+        addPiece(ChessPosition.of(1, 5), ChessPiece.of(white, ChessPiece.PieceType.KING));
+        addPiece(ChessPosition.of(1, 6), ChessPiece.of(white, ChessPiece.PieceType.BISHOP));
+        addPiece(ChessPosition.of(1, 7), ChessPiece.of(white, ChessPiece.PieceType.KNIGHT));
+        addPiece(ChessPosition.of(1, 8), ChessPiece.of(white, ChessPiece.PieceType.ROOK));
         for (int i = 1; i <= 8; i++) {
-            addPiece(new ChessPosition(2, i), new ChessPiece(white, ChessPiece.PieceType.PAWN));
+            addPiece(ChessPosition.of(2, i), ChessPiece.of(white, ChessPiece.PieceType.PAWN));
         }
 
         // add black pieces
         var black = ChessGame.TeamColor.BLACK;
         for (int i = 1; i <= 8; i++) {
-            addPiece(new ChessPosition(7, i), new ChessPiece(black, ChessPiece.PieceType.PAWN));
+            addPiece(ChessPosition.of(7, i), ChessPiece.of(black, ChessPiece.PieceType.PAWN));
         }
-        addPiece(new ChessPosition(8, 1), new ChessPiece(black, ChessPiece.PieceType.ROOK));
-        addPiece(new ChessPosition(8, 2), new ChessPiece(black, ChessPiece.PieceType.KNIGHT));
-        addPiece(new ChessPosition(8, 3), new ChessPiece(black, ChessPiece.PieceType.BISHOP));
-        addPiece(new ChessPosition(8, 4), new ChessPiece(black, ChessPiece.PieceType.QUEEN));
-        addPiece(new ChessPosition(8, 5), new ChessPiece(black, ChessPiece.PieceType.KING));
-        addPiece(new ChessPosition(8, 6), new ChessPiece(black, ChessPiece.PieceType.BISHOP));
-        addPiece(new ChessPosition(8, 7), new ChessPiece(black, ChessPiece.PieceType.KNIGHT));
-        addPiece(new ChessPosition(8, 8), new ChessPiece(black, ChessPiece.PieceType.ROOK));
+        addPiece(ChessPosition.of(8, 1), ChessPiece.of(black, ChessPiece.PieceType.ROOK));
+        addPiece(ChessPosition.of(8, 2), ChessPiece.of(black, ChessPiece.PieceType.KNIGHT));
+        addPiece(ChessPosition.of(8, 3), ChessPiece.of(black, ChessPiece.PieceType.BISHOP));
+        addPiece(ChessPosition.of(8, 4), ChessPiece.of(black, ChessPiece.PieceType.QUEEN));
+        addPiece(ChessPosition.of(8, 5), ChessPiece.of(black, ChessPiece.PieceType.KING));
+        addPiece(ChessPosition.of(8, 6), ChessPiece.of(black, ChessPiece.PieceType.BISHOP));
+        addPiece(ChessPosition.of(8, 7), ChessPiece.of(black, ChessPiece.PieceType.KNIGHT));
+        addPiece(ChessPosition.of(8, 8), ChessPiece.of(black, ChessPiece.PieceType.ROOK));
     }
 
     /**
@@ -81,16 +328,10 @@ public class ChessBoard {
     public ChessBoard cloneBoard() {
         ChessBoard clone = new ChessBoard();
 
-        for (int i = 1; i <= 8; i++) {
-            for (int j = 1; j <= 8; j++) {
-                ChessPosition curPos = new ChessPosition(i, j);
-                ChessPiece curPiece = board[i - 1][j - 1];
-
-                if (curPiece != null) {
-                    clone.addPiece(curPos, new ChessPiece(curPiece));
-                }
-            }
-        }
+        System.arraycopy(pieceBitboards, 0, clone.pieceBitboards, 0, pieceBitboards.length);
+        System.arraycopy(colorBitboards, 0, clone.colorBitboards, 0, colorBitboards.length);
+        clone.occupied = occupied;
+        clone.positionKey = positionKey;
         return clone;
     }
 
@@ -101,15 +342,34 @@ public class ChessBoard {
      * @return the position of the king
      */
     public ChessPosition locateKing(ChessGame.TeamColor color) {
-        for (int row = 0; row < 8; row++) {
-            for (int col = 0; col < 8; col++) {
-                var targetPiece = board[row][col];
-                if (targetPiece != null && targetPiece.getPieceType() == ChessPiece.PieceType.KING && targetPiece.getTeamColor() == color) {
-                    return new ChessPosition(row + 1, col + 1);
-                }
-            }
+        int kingSquare = getKingSquare(color);
+        return kingSquare < 0 ? null : Bitboards.position(kingSquare);
+    }
+
+    /**
+     * Gets the square the king is on. The king's bitboard is kept up to date by every addPiece and makeMove,
+     * so this is a single bit scan rather than a search of the board.
+     *
+     * @param color the color of the king to locate
+     * @return the square index of the king, or -1 if that team has no king on the board
+     */
+    public int getKingSquare(ChessGame.TeamColor color) {
+        long king = pieceBitboards[pieceIndex(color, ChessPiece.PieceType.KING)];
+        return king == 0 ? -1 : Long.numberOfTrailingZeros(king);
+    }
+
+    /**
+     * Builds the board as an 8x8 array of pieces, indexed [row - 1][col - 1]
+     *
+     * @return a new array holding every piece on the board, with null for empty squares
+     */
+    public ChessPiece[][] toArray() {
+        ChessPiece[][] array = new ChessPiece[8][8];
+        for (long bits = occupied; bits != 0; bits &= bits - 1) {
+            int square = Long.numberOfTrailingZeros(bits);
+            array[square >>> 3][square & 7] = getPiece(square);
         }
-        return null;
+        return array;
     }
 
     @Override
@@ -118,18 +378,18 @@ public class ChessBoard {
             return false;
         }
         ChessBoard that = (ChessBoard) o;
-        return Objects.deepEquals(board, that.board);
+        return Arrays.equals(pieceBitboards, that.pieceBitboards);
     }
 
     @Override
     public int hashCode() {
-        return Arrays.deepHashCode(board);
+        return Long.hashCode(positionKey);
     }
 
     @Override
     public String toString() {
         return "ChessBoard{" +
-                "board=" + Arrays.deepToString(board) +
+                "board=" + Arrays.deepToString(toArray()) +
                 '}';
     }
 }
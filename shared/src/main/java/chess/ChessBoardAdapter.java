@@ -0,0 +1,62 @@
+package chess;
+
+import com.google.gson.TypeAdapter;
+import com.google.gson.stream.JsonReader;
+import com.google.gson.stream.JsonToken;
+import com.google.gson.stream.JsonWriter;
+
+import java.io.IOException;
+
+/**
+ * Reads and writes a ChessBoard with Gson in the same form as the original 8x8 piece array,
+ * so games already stored in the database (and clients on the other end of the websocket)
+ * keep working: {"board":[[{"pieceColor":"WHITE","type":"ROOK"},null,...],...]}
+ */
+class ChessBoardAdapter extends TypeAdapter<ChessBoard> {
+
+    private static final TypeAdapter<ChessPiece> PIECE_ADAPTER = new ChessPieceAdapter().nullSafe();
+
+    @Override
+    public void write(JsonWriter out, ChessBoard board) throws IOException {
+        out.beginObject();
+        out.name("board");
+        out.beginArray();
+        for (int row = 1; row <= 8; row++) {
+            out.beginArray();
+            for (int col = 1; col <= 8; col++) {
+                PIECE_ADAPTER.write(out, board.getPiece(ChessPosition.of(row, col)));
+            }
+            out.endArray();
+        }
+        out.endArray();
+        out.endObject();
+    }
+
+    @Override
+    public ChessBoard read(JsonReader in) throws IOException {
+        ChessBoard board = new ChessBoard();
+
+        in.beginObject();
+        while (in.hasNext()) {
+            if (!in.nextName().equals("board") || in.peek() == JsonToken.NULL) {
+                in.skipValue();
+                continue;
+            }
+            in.beginArray();
+            for (int row = 1; in.hasNext(); row++) {
+                in.beginArray();
+                for (int col = 1; in.hasNext(); col++) {
+                    ChessPiece piece = PIECE_ADAPTER.read(in);
+                    if (piece != null) {
+                        board.addPiece(ChessPosition.of(row, col), piece);
+                    }
+                }
+                in.endArray();
+            }
+            in.endArray();
+        }
+        in.endObject();
+
+        return board;
+    }
+}
@@ -1,6 +1,12 @@
 package chess;
 
+import chess.moves.Bitboards;
+import chess.moves.LegalMoveGenerator;
+import chess.moves.Move;
+import chess.moves.MoveList;
+
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Collection;
 import java.util.Objects;
 
@@ -15,10 +21,54 @@ public class ChessGame {
     private ChessBoard gameBoard;
     private TeamColor currentTeamTurn;
 
+    // Draws by rule: 50 moves each (100 halfmoves) without a capture or pawn move, or the same
+    // position with the same team to move for the third time
+    private static final int FIFTY_MOVE_LIMIT = 100;
+    private static final int REPETITION_LIMIT = 3;
+
+    // The ring never needs more than this: a position from before the fifty-move limit is already a draw
+    private static final int HISTORY_LIMIT = 128;
+
+    // Halfmoves since the last capture or pawn move. The keys of the positions since then (not counting
+    // the current one) go in a ring, which starts small and doubles up to HISTORY_LIMIT; entry i of
+    // historyCount is at i & (keyHistory.length - 1). Capturing or moving a pawn means none of them can
+    // come up again, so both start over. These are kept (not transient) so a game loaded from the
+    // database still knows its history.
+    private int halfmoveClock;
+    private long[] keyHistory = new long[0];
+    private int historyCount;
+
+    // What's been worked out for each team in the position with key cacheKey: its legal moves, which
+    // validMoves, legalMoves, makeMove, and getStatus all share, and its status. Moving, editing the
+    // board, or setting the turn changes positionKey, which is all it takes to throw them out; setBoard
+    // and setHalfmoveClock change the history without changing the key, so they clear them by hand.
+    // These are transient so Gson leaves them out.
+    private transient TeamCache[] teamCaches;
+    private transient long cacheKey;
+
+    private static final class TeamCache {
+        private final MoveList moves = new MoveList();
+        private boolean movesGenerated;
+        private GameStatus status;
+    }
+
     public ChessGame() {
-        gameBoard = new ChessBoard();
+        this(new ChessBoard(), TeamColor.WHITE, 0);
         gameBoard.resetBoard();
-        setTeamTurn(TeamColor.WHITE);
+    }
+
+    /**
+     * Creates a game around a board that's already set up, without building (and then throwing away) a
+     * starting board first, for code that inflates lots of games (Fen, PackedGame)
+     *
+     * @param board         the board to use (not copied)
+     * @param teamTurn      the team to move, or null if the game is over
+     * @param halfmoveClock the number of halfmoves since the last capture or pawn move
+     */
+    ChessGame(ChessBoard board, TeamColor teamTurn, int halfmoveClock) {
+        gameBoard = board;
+        currentTeamTurn = teamTurn;
+        this.halfmoveClock = halfmoveClock;
     }
 
     /**
@@ -53,38 +103,49 @@ public class ChessGame {
      * startPosition
      */
     public Collection<ChessMove> validMoves(ChessPosition startPosition) {
-        // First, get the complete list of moves
         ChessPiece currentPiece = gameBoard.getPiece(startPosition);
         if (currentPiece == null) {
             return null;
         }
-        var allMoves = currentPiece.pieceMoves(gameBoard, startPosition);
 
-        // Get the piece color
-        TeamColor curColor = currentPiece.getTeamColor();
-
-        // Loop through all possible moves and determine if they do not put the king in check
+        // Pick the piece's moves out of its team's cached moves, so asking about every piece in a
+        // position (or the same piece again) only generates the moves once
+        MoveList moves = cachedMoves(currentPiece.getTeamColor());
+        int startSquare = Bitboards.square(startPosition);
         Collection<ChessMove> validMoves = new ArrayList<>();
-        for (ChessMove move : allMoves) {
-            // Clone the board
-            ChessBoard newBoard = gameBoard.cloneBoard();
-
-            // Make the move
-            ChessPosition startPos = move.getStartPosition();
-            ChessPosition endPos = move.getEndPosition();
-            ChessPiece targetPiece = newBoard.getPiece(startPos);
-
-            newBoard.addPiece(startPos, null);
-            newBoard.addPiece(endPos, targetPiece);
-
-            // Check to see if the king is in check after that move
-            if (!isKingInCheck(newBoard, curColor)) {
-                validMoves.add(move);
+        for (int i = 0; i < moves.size(); i++) {
+            if (Move.from(moves.get(i)) == startSquare) {
+                validMoves.add(Move.toChessMove(moves.get(i)));
             }
         }
         return validMoves;
     }
 
+    /**
+     * Gets every legal move for the team whose turn it is
+     *
+     * @return every legal move, or an empty collection if the game is over
+     */
+    public Collection<ChessMove> legalMoves() {
+        if (currentTeamTurn == null) {
+            return new ArrayList<>();
+        }
+        return legalMoves(currentTeamTurn);
+    }
+
+    /**
+     * Gets every legal move for a team in one pass over the board
+     *
+     * @param teamColor the team to get moves for
+     * @return every legal move for that team
+     */
+    public Collection<ChessMove> legalMoves(TeamColor teamColor) {
+        MoveList cached = cachedMoves(teamColor);
+        Collection<ChessMove> moves = new ArrayList<>(cached.size());
+        cached.addTo(moves);
+        return moves;
+    }
+
     /**
      * Makes a move in a chess game
      *
@@ -94,22 +155,33 @@ public class ChessGame {
     public void makeMove(ChessMove move) throws InvalidMoveException {
         ChessPosition startPos = move.getStartPosition();
         ChessPosition endPos = move.getEndPosition();
+
+        // An off-board position can pack into the same bits as a real move (row 9 wraps into the next
+        // field), so those are turned away before the move is looked up
+        if (!onBoard(startPos) || !onBoard(endPos)) {
+            throw new InvalidMoveException();
+        }
         ChessPiece targetPiece = gameBoard.getPiece(startPos);
 
         // Check to see if it's an invalid move. If it's invalid, throw InvalidMoveException
-        var validMoves = validMoves(startPos);
-
-        if (targetPiece == null || !validMoves.contains(move) || targetPiece.getTeamColor() != currentTeamTurn) {
+        if (targetPiece == null || targetPiece.getTeamColor() != currentTeamTurn || !isLegal(move, targetPiece.getTeamColor())) {
             throw new InvalidMoveException();
         }
 
+        // Remember the position being left, unless this move can't be undone
+        if (targetPiece.getPieceType() == ChessPiece.PieceType.PAWN || gameBoard.getPiece(endPos) != null) {
+            clearHistory();
+        } else {
+            recordPosition(positionKey());
+        }
+
         // Make move
         gameBoard.addPiece(startPos, null);
         gameBoard.addPiece(endPos, targetPiece);
 
         // Pawn promotion
         if (move.getPromotionPiece() != null) {
-            var promotionPiece = new ChessPiece(targetPiece.getTeamColor(), move.getPromotionPiece());
+            var promotionPiece = ChessPiece.of(targetPiece.getTeamColor(), move.getPromotionPiece());
             gameBoard.addPiece(endPos, promotionPiece);
         }
 
@@ -135,49 +207,14 @@ public class ChessGame {
      * @return true if king is in check
      */
     private boolean isKingInCheck(ChessBoard board, TeamColor teamColor) {
-        // loop through all pieces on that board
-        for (int row = 1; row <= 8; row++) {
-            for (int col = 1; col <= 8; col++) {
-                // target piece
-                ChessPosition newPosition = new ChessPosition(row, col);
-                ChessPiece newPiece = board.getPiece(newPosition);
-
-                // get the moves of that new piece
-                if (newPiece != null) {
-                    var newPieceMoves = newPiece.pieceMoves(board, newPosition);
-                    // if that piece captures the king, then it is in check
-                    if (doesPieceCaptureKing(newPieceMoves, board, teamColor)) {
-                        return true;
-                    }
-                }
-            }
+        int kingSquare = board.getKingSquare(teamColor);
+        if (kingSquare < 0) {
+            return false;
         }
-        return false;
-    }
 
-    private boolean doesPieceCaptureKing(Collection<ChessMove> moves, ChessBoard board, TeamColor teamColor) {
-        // Get the 2 kings' positions
-        var whiteKingPos = board.locateKing(TeamColor.WHITE);
-        var blackKingPos = board.locateKing(TeamColor.BLACK);
-
-        // iterate through this new list, see if it matches the square the king is on
-        for (ChessMove newMove : moves) {
-            ChessPosition newEndPos = newMove.getEndPosition();
-
-            switch (teamColor) {
-                case WHITE -> {
-                    if (newEndPos.equals(whiteKingPos)) {
-                        return true;
-                    }
-                }
-                case BLACK -> {
-                    if (newEndPos.equals(blackKingPos)) {
-                        return true;
-                    }
-                }
-            }
-        }
-        return false;
+        // look outward from the king's square for the first piece of the other team attacking it
+        TeamColor otherColor = teamColor == TeamColor.WHITE ? TeamColor.BLACK : TeamColor.WHITE;
+        return board.isSquareAttacked(kingSquare, otherColor);
     }
 
     /**
@@ -187,26 +224,8 @@ public class ChessGame {
      * @return True if the specified team is in checkmate
      */
     public boolean isInCheckmate(TeamColor teamColor) {
-        boolean inCheckmate = true;
-
-        // loop through all pieces on that board
-        for (int row = 1; row <= 8; row++) {
-            for (int col = 1; col <= 8; col++) {
-                // target piece
-                ChessPosition newPosition = new ChessPosition(row, col);
-                ChessPiece newPiece = gameBoard.getPiece(newPosition);
-
-                // get the moves of that new piece
-                if (newPiece != null && newPiece.getTeamColor() == teamColor) {
-                    Collection<ChessMove> moves = validMoves(newPosition);
-
-                    if (!moves.isEmpty()) {
-                        inCheckmate = false;
-                    }
-                }
-            }
-        }
-        return inCheckmate;
+        // in check, with no legal move to get out of it
+        return isInCheck(teamColor) && !hasAnyLegalMove(teamColor);
     }
 
     /**
@@ -218,7 +237,149 @@ public class ChessGame {
      */
     public boolean isInStalemate(TeamColor teamColor) {
         // if the given team has no legal moves, but the king is not in immediate danger.
-        return isInCheckmate(teamColor) && !isInCheck(teamColor);
+        return !isInCheck(teamColor) && !hasAnyLegalMove(teamColor);
+    }
+
+    /**
+     * Determines if a team has at least one legal move. Unlike legalMoves, this stops
+     * at the first legal move it finds.
+     *
+     * @param teamColor the team to check
+     * @return true if the team can move
+     */
+    public boolean hasAnyLegalMove(TeamColor teamColor) {
+        // reuse the moves if they've already been generated for this position
+        TeamCache cache = teamCache(teamColor);
+        if (cache.movesGenerated) {
+            return !cache.moves.isEmpty();
+        }
+        return LegalMoveGenerator.hasAnyLegalMove(gameBoard, teamColor);
+    }
+
+    /**
+     * Gets whether a team is in check, checkmate, or stalemate, and how many legal moves it has.
+     * This is worked out once per position and reused until the position changes.
+     *
+     * @param teamColor the team to get the status of
+     * @return the team's status on the current board
+     */
+    public GameStatus getStatus(TeamColor teamColor) {
+        TeamCache cache = teamCache(teamColor);
+        if (cache.status == null) {
+            MoveList moves = cachedMoves(teamColor);
+            boolean check = isInCheck(teamColor);
+            boolean noMoves = moves.isEmpty();
+            boolean checkmate = check && noMoves;
+            cache.status = new GameStatus(check, checkmate, !check && noMoves, moves.size(),
+                    !noMoves && isRepetition(), !checkmate && halfmoveClock >= FIFTY_MOVE_LIMIT);
+        }
+        return cache.status;
+    }
+
+    /**
+     * @return the number of halfmoves since the last capture or pawn move
+     */
+    public int getHalfmoveClock() {
+        return halfmoveClock;
+    }
+
+    /**
+     * Sets the halfmove clock, for a position loaded from somewhere that counted it. The positions
+     * before it aren't known, so they can't count towards a repetition.
+     *
+     * @param halfmoveClock the number of halfmoves since the last capture or pawn move
+     */
+    public void setHalfmoveClock(int halfmoveClock) {
+        clearHistory();
+        this.halfmoveClock = halfmoveClock;
+        clearCaches();
+    }
+
+    /**
+     * Determines if the current position, with the same team to move, has come up for the third time.
+     * Only the positions since the last capture or pawn move are looked at, since nothing before it
+     * can repeat.
+     *
+     * @return true if the game can be drawn by threefold repetition
+     */
+    public boolean isRepetition() {
+        long key = positionKey();
+        int mask = keyHistory.length - 1;
+        int oldest = Math.max(0, historyCount - keyHistory.length);
+
+        // the same team is to move every other halfmove
+        int seen = 1;
+        for (int i = historyCount - 2; i >= oldest; i -= 2) {
+            if (keyHistory[i & mask] == key && ++seen == REPETITION_LIMIT) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private void recordPosition(long key) {
+        if (historyCount == keyHistory.length && keyHistory.length < HISTORY_LIMIT) {
+            // nothing has wrapped around yet, so the entries stay at the same index
+            keyHistory = Arrays.copyOf(keyHistory, Math.max(8, keyHistory.length * 2));
+        }
+        keyHistory[historyCount & (keyHistory.length - 1)] = key;
+        historyCount++;
+        halfmoveClock++;
+    }
+
+    private void clearHistory() {
+        keyHistory = new long[0];
+        historyCount = 0;
+        halfmoveClock = 0;
+    }
+
+    // What's been worked out for a team in the current position, emptied first if the position has changed
+    private TeamCache teamCache(TeamColor teamColor) {
+        long key = positionKey();
+        if (teamCaches == null) {
+            teamCaches = new TeamCache[]{new TeamCache(), new TeamCache()};
+        } else if (key != cacheKey) {
+            clearCaches();
+        }
+        cacheKey = key;
+        return teamCaches[teamColor.ordinal()];
+    }
+
+    // The team's legal moves in the current position, generated the first time they're asked for
+    private MoveList cachedMoves(TeamColor teamColor) {
+        TeamCache cache = teamCache(teamColor);
+        if (!cache.movesGenerated) {
+            cache.moves.clear();
+            LegalMoveGenerator.generate(gameBoard, teamColor, cache.moves);
+            cache.movesGenerated = true;
+        }
+        return cache.moves;
+    }
+
+    private void clearCaches() {
+        if (teamCaches == null) {
+            return;
+        }
+        for (TeamCache cache : teamCaches) {
+            cache.movesGenerated = false;
+            cache.status = null;
+        }
+    }
+
+    private static boolean onBoard(ChessPosition position) {
+        return position.getRow() >= 1 && position.getRow() <= 8 && position.getColumn() >= 1 && position.getColumn() <= 8;
+    }
+
+    // Whether a move is one of the team's legal moves, comparing packed moves so nothing is allocated
+    private boolean isLegal(ChessMove move, TeamColor teamColor) {
+        int packed = Move.fromChessMove(move);
+        MoveList moves = cachedMoves(teamColor);
+        for (int i = 0; i < moves.size(); i++) {
+            if (Move.withoutFlags(moves.get(i)) == packed) {
+                return true;
+            }
+        }
+        return false;
     }
 
     /**
@@ -228,6 +389,8 @@ public class ChessGame {
      */
     public void setBoard(ChessBoard board) {
         gameBoard = board;
+        clearHistory();
+        clearCaches();
     }
 
     /**
@@ -239,6 +402,44 @@ public class ChessGame {
         return gameBoard;
     }
 
+    /**
+     * Gets the Zobrist key of the game: the board's key, plus whose turn it is
+     *
+     * @return a 64-bit key identifying the position
+     */
+    public long positionKey() {
+        return gameBoard.positionKey() ^ Zobrist.sideToMove(currentTeamTurn);
+    }
+
+    /**
+     * Creates a game from a FEN string, e.g. "rnbqkbnr/pppppppp/8/8/8/8/PPPPPPPP/RNBQKBNR w - - 0 1".
+     * Castling, en passant, and the move counters aren't part of our games, so they're ignored.
+     *
+     * @param fen the FEN string, with "-" as the side to move for a game that's over
+     * @return the game
+     * @throws IllegalArgumentException if the string isn't valid FEN
+     */
+    public static ChessGame fromFen(String fen) {
+        return Fen.parse(fen);
+    }
+
+    /**
+     * @return the game as a FEN string
+     */
+    public String toFen() {
+        return Fen.write(this, new StringBuilder(90)).toString();
+    }
+
+    /**
+     * Appends the game as a FEN string, so many positions can be written through one builder
+     *
+     * @param out the builder to append to
+     * @return out
+     */
+    public StringBuilder toFen(StringBuilder out) {
+        return Fen.write(this, out);
+    }
+
     @Override
     public boolean equals(Object o) {
         if (o == null || getClass() != o.getClass()) {
@@ -250,7 +451,7 @@ public class ChessGame {
 
     @Override
     public int hashCode() {
-        return Objects.hash(gameBoard, currentTeamTurn);
+        return Long.hashCode(positionKey());
     }
 
     @Override
@@ -3,6 +3,7 @@ package chess;
 import java.util.Collection;
 import java.util.Objects;
 import chess.moves.*;
+import com.google.gson.annotations.JsonAdapter;
 
 /**
  * Represents a single chess piece
@@ -10,16 +11,45 @@ import chess.moves.*;
  * Note: You can add to this class, but you may not alter
  * signature of the existing methods.
  */
+@JsonAdapter(ChessPieceAdapter.class)
 public class ChessPiece {
 
     private final ChessGame.TeamColor pieceColor;
     private final PieceType type;
 
+    // Pieces can't change, so one shared instance of each color and type is enough.
+    // White pieces are 0-5 and black pieces 6-11, in PieceType order (the same as ChessBoard's bitboards).
+    private static final ChessPiece[] PIECES = new ChessPiece[12];
+
+    static {
+        for (var color : ChessGame.TeamColor.values()) {
+            for (var type : PieceType.values()) {
+                PIECES[color.ordinal() * 6 + type.ordinal()] = new ChessPiece(color, type);
+            }
+        }
+    }
+
     public ChessPiece(ChessGame.TeamColor pieceColor, ChessPiece.PieceType type) {
         this.pieceColor = pieceColor;
         this.type = type;
     }
 
+    /**
+     * Gets the shared instance of a piece instead of making a new one
+     *
+     * @param pieceColor the team the piece belongs to
+     * @param type       the type of piece
+     * @return the shared piece
+     */
+    public static ChessPiece of(ChessGame.TeamColor pieceColor, ChessPiece.PieceType type) {
+        return PIECES[pieceColor.ordinal() * 6 + type.ordinal()];
+    }
+
+    // Shared piece by its bitboard index in ChessBoard
+    static ChessPiece of(int index) {
+        return PIECES[index];
+    }
+
     /**
      * Copy constructor for ChessPiece
      * @param oldPiece is the piece to create a copy of.
@@ -78,7 +108,8 @@ public class ChessPiece {
 
     @Override
     public int hashCode() {
-        return Objects.hash(pieceColor, type);
+        // same value as Objects.hash(pieceColor, type), without the varargs array
+        return 31 * (31 + Objects.hashCode(pieceColor)) + Objects.hashCode(type);
     }
 
     @Override
@@ -1,6 +1,6 @@
 package chess;
 
-import java.util.Objects;
+import com.google.gson.annotations.JsonAdapter;
 
 /**
  * Represents a single square position on a chess board
@@ -8,18 +8,52 @@ import java.util.Objects;
  * Note: You can add to this class, but you may not alter
  * signature of the existing methods.
  */
+@JsonAdapter(ChessPositionAdapter.class)
 public class ChessPosition {
 
     // Positions are stored as data members here
     private final int row;
     private final int col;
 
+    // Only 64 positions exist on a board, so one shared instance of each is made up front
+    private static final ChessPosition[] POSITIONS = new ChessPosition[64];
+
+    static {
+        for (int i = 0; i < 64; i++) {
+            POSITIONS[i] = new ChessPosition(i / 8 + 1, i % 8 + 1);
+        }
+    }
+
     // Constructor for setting up a square position on a chess board
     public ChessPosition(int row, int col) {
         this.row = row;
         this.col = col;
     }
 
+    /**
+     * Gets the shared instance of a position instead of making a new one
+     *
+     * @param row the row, 1 to 8
+     * @param col the column, 1 to 8
+     * @return the shared position, or a new one if it's off the board
+     */
+    public static ChessPosition of(int row, int col) {
+        if (row < 1 || row > 8 || col < 1 || col > 8) {
+            return new ChessPosition(row, col);
+        }
+        return POSITIONS[(row - 1) * 8 + (col - 1)];
+    }
+
+    /**
+     * Gets the shared instance of a position by square index
+     *
+     * @param square the square index, from 0 (row 1, column 1) to 63 (row 8, column 8)
+     * @return the shared position
+     */
+    public static ChessPosition of(int square) {
+        return POSITIONS[square];
+    }
+
     /**
      * @return which row this position is in
      * 1 codes for the bottom row
@@ -47,7 +81,8 @@ public class ChessPosition {
 
     @Override
     public int hashCode() {
-        return Objects.hash(row, col);
+        // same value as Objects.hash(row, col), without boxing the fields into an array
+        return 31 * (31 + row) + col;
     }
 
     @Override
@@ -0,0 +1,159 @@
+package chess;
+
+import chess.moves.Bitboards;
+
+import java.util.Arrays;
+
+/**
+ * Reads and writes games in Forsyth-Edwards Notation, e.g. the starting position is
+ * "rnbqkbnr/pppppppp/8/8/8/8/PPPPPPPP/RNBQKBNR w - - 0 1".
+ * <p>
+ * The parser walks the string one character at a time, setting pieces straight onto a new board,
+ * so it doesn't need a regex, split, or any substrings. Our games have no castling or en passant,
+ * so those fields are always written as "-" and skipped when read, and the fullmove number isn't
+ * tracked. A finished game (no team's turn) is written with "-" as the side to move.
+ */
+final class Fen {
+
+    // Piece characters by bitboard index: white KQBNRP, then black kqbnrp
+    private static final String PIECE_CHARS = "KQBNRPkqbnrp";
+    private static final int[] PIECE_INDEX = new int[128];
+
+    static {
+        Arrays.fill(PIECE_INDEX, -1);
+        for (int i = 0; i < PIECE_CHARS.length(); i++) {
+            PIECE_INDEX[PIECE_CHARS.charAt(i)] = i;
+        }
+    }
+
+    private Fen() {
+    }
+
+    /**
+     * Parses a FEN string into a new game
+     *
+     * @param fen the FEN string; the fields after the side to move are optional
+     * @return a game with the pieces and turn from the string
+     * @throws IllegalArgumentException if the string isn't valid FEN
+     */
+    static ChessGame parse(CharSequence fen) {
+        var board = new ChessBoard();
+        int i = parsePlacement(fen, board);
+
+        if (i >= fen.length() || fen.charAt(i) != ' ' || i + 1 >= fen.length()) {
+            throw invalid(fen, "missing side to move");
+        }
+        ChessGame.TeamColor turn = switch (fen.charAt(i + 1)) {
+            case 'w' -> ChessGame.TeamColor.WHITE;
+            case 'b' -> ChessGame.TeamColor.BLACK;
+            case '-' -> null;
+            default -> throw invalid(fen, "side to move must be w, b, or -");
+        };
+        if (i + 2 < fen.length() && fen.charAt(i + 2) != ' ') {
+            throw invalid(fen, "side to move must be a single character");
+        }
+
+        return new ChessGame(board, turn, parseHalfmoveClock(fen, i + 2));
+    }
+
+    /**
+     * Appends a game's FEN string to a builder, so callers writing many positions can reuse one
+     *
+     * @param game the game to write
+     * @param out  where to append it
+     * @return out
+     */
+    static StringBuilder write(ChessGame game, StringBuilder out) {
+        var board = game.getBoard();
+        for (int row = 8; row >= 1; row--) {
+            int empty = 0;
+            for (int col = 1; col <= 8; col++) {
+                int piece = board.pieceIndexAt(Bitboards.square(row, col));
+                if (piece < 0) {
+                    empty++;
+                    continue;
+                }
+                if (empty > 0) {
+                    out.append((char) ('0' + empty));
+                    empty = 0;
+                }
+                out.append(PIECE_CHARS.charAt(piece));
+            }
+            if (empty > 0) {
+                out.append((char) ('0' + empty));
+            }
+            if (row > 1) {
+                out.append('/');
+            }
+        }
+
+        var turn = game.getTeamTurn();
+        out.append(' ').append(turn == null ? '-' : turn == ChessGame.TeamColor.WHITE ? 'w' : 'b');
+        return out.append(" - - ").append(game.getHalfmoveClock()).append(" 1");
+    }
+
+    // Reads the piece placement field onto an empty board, returning the index just past it
+    private static int parsePlacement(CharSequence fen, ChessBoard board) {
+        int row = 8;
+        int col = 1;
+        int i = 0;
+        for (; i < fen.length() && fen.charAt(i) != ' '; i++) {
+            char c = fen.charAt(i);
+            if (c == '/') {
+                if (col != 9 || row == 1) {
+                    throw invalid(fen, "row " + row + " doesn't have 8 squares");
+                }
+                row--;
+                col = 1;
+            } else if (c >= '1' && c <= '8') {
+                col += c - '0';
+            } else if (c < 128 && PIECE_INDEX[c] >= 0 && col <= 8) {
+                board.addPiece(ChessPosition.of(row, col), ChessPiece.of(PIECE_INDEX[c]));
+                col++;
+            } else {
+                throw invalid(fen, "unexpected '" + c + "' in the piece placement");
+            }
+
+            if (col > 9) {
+                throw invalid(fen, "row " + row + " has more than 8 squares");
+            }
+        }
+
+        if (row != 1 || col != 9) {
+            throw invalid(fen, "the piece placement doesn't cover 8 rows of 8 squares");
+        }
+        return i;
+    }
+
+    // Skips the castling and en passant fields after index i, then reads the halfmove clock (0 if it's missing)
+    private static int parseHalfmoveClock(CharSequence fen, int i) {
+        for (int skipped = 0; skipped < 2; skipped++) {
+            i = skipSpaces(fen, i);
+            while (i < fen.length() && fen.charAt(i) != ' ') {
+                i++;
+            }
+        }
+        i = skipSpaces(fen, i);
+
+        int clock = 0;
+        for (; i < fen.length() && fen.charAt(i) != ' '; i++) {
+            char c = fen.charAt(i);
+            if (c < '0' || c > '9' || clock > 10_000) {
+                throw invalid(fen, "the halfmove clock must be a number");
+            }
+            clock = clock * 10 + (c - '0');
+        }
+        return clock;
+    }
+
+    private static int skipSpaces(CharSequence fen, int i) {
+        while (i < fen.length() && fen.charAt(i) == ' ') {
+            i++;
+        }
+        return i;
+    }
+
+    private static IllegalArgumentException invalid(CharSequence fen, String reason) {
+        return new IllegalArgumentException("Invalid FEN \"" + fen + "\": " + reason);
+    }
+}
@@ -0,0 +1,30 @@
+package chess;
+
+/**
+ * Everything about a team's position that decides whether the game goes on, worked out together
+ * from a single pass of move generation.
+ *
+ * @param check          the team's king is attacked
+ * @param checkmate      the team is in check and has no legal moves
+ * @param stalemate      the team is not in check but has no legal moves
+ * @param legalMoveCount how many legal moves the team has
+ * @param repetition     the position has come up for the third time with the same team to move
+ * @param fiftyMoves     50 moves each have gone by without a capture or pawn move (and it isn't checkmate)
+ */
+public record GameStatus(boolean check, boolean checkmate, boolean stalemate, int legalMoveCount,
+                         boolean repetition, boolean fiftyMoves) {
+
+    /**
+     * Creates a status without a draw by repetition or the fifty-move rule
+     */
+    public GameStatus(boolean check, boolean checkmate, boolean stalemate, int legalMoveCount) {
+        this(check, checkmate, stalemate, legalMoveCount, false, false);
+    }
+
+    /**
+     * @return true if the game is drawn: by stalemate, repetition, or the fifty-move rule
+     */
+    public boolean draw() {
+        return stalemate || repetition || fiftyMoves;
+    }
+}
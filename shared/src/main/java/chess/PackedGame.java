@@ -0,0 +1,183 @@
+package chess;
+
+/**
+ * A game squeezed into a few words, for keeping lots of games in memory at once (e.g. every open
+ * correspondence game) and only inflating one to a full ChessGame when someone needs it.
+ * <p>
+ * The board takes 32 bytes: one 4-bit nibble per square, 16 squares to a long, holding 0 for an empty
+ * square or ChessBoard's piece index + 1. One more int holds whose turn it is (or that the game is over)
+ * and the halfmove clock. With compressed references that's a 12-byte object header, four longs and an
+ * int: BYTES_PER_GAME (48) bytes, so a million games fit in about 48 MB. The positions before the last
+ * move aren't kept, so a game inflated from here can't see a repetition that started before it was packed.
+ */
+public final class PackedGame {
+
+    /**
+     * The heap each packed game takes with compressed references (which the JVM uses below 32 GB of heap)
+     */
+    public static final int BYTES_PER_GAME = 48;
+
+    private static final int TURN_BITS = 2;
+    private static final int TURN_MASK = (1 << TURN_BITS) - 1;
+    private static final int GAME_OVER = 2;
+    private static final int MAX_CLOCK = 0xFFFF;
+
+    private final long squares0;
+    private final long squares1;
+    private final long squares2;
+    private final long squares3;
+
+    // bits 0-1 are the team to move (its ordinal, or GAME_OVER), and bits 2-17 the halfmove clock
+    private final int state;
+
+    private PackedGame(long[] squares, int state) {
+        squares0 = squares[0];
+        squares1 = squares[1];
+        squares2 = squares[2];
+        squares3 = squares[3];
+        this.state = state;
+    }
+
+    /**
+     * Packs a game's board, turn, and halfmove clock
+     *
+     * @param game the game to pack (left unchanged)
+     * @return the packed game
+     */
+    public static PackedGame of(ChessGame game) {
+        long[] squares = new long[4];
+        for (int word = 0; word < 4; word++) {
+            squares[word] = packSquares(game.getBoard(), word);
+        }
+        return new PackedGame(squares, packState(game));
+    }
+
+    /**
+     * Packs 16 squares of a board, one nibble each (see the class comment)
+     *
+     * @param board the board to pack
+     * @param word  which 16 squares: 0 for squares 0-15, up to 3 for squares 48-63
+     * @return the packed squares
+     */
+    public static long packSquares(ChessBoard board, int word) {
+        long squares = 0;
+        long wordMask = 0xFFFFL << (word * 16);
+        for (int pieceIndex = 0; pieceIndex < 12; pieceIndex++) {
+            long nibble = pieceIndex + 1;
+            var piece = ChessPiece.of(pieceIndex);
+            long pieces = board.getPieces(piece.getTeamColor(), piece.getPieceType()) & wordMask;
+            for (; pieces != 0; pieces &= pieces - 1) {
+                int square = Long.numberOfTrailingZeros(pieces);
+                squares |= nibble << ((square & 15) * 4);
+            }
+        }
+        return squares;
+    }
+
+    /**
+     * Adds the pieces from 16 packed squares (from packSquares) to a board
+     *
+     * @param squares the packed squares
+     * @param word    which 16 squares they are
+     * @param board   the board to add the pieces to
+     */
+    public static void unpackSquares(long squares, int word, ChessBoard board) {
+        for (int i = 0; squares != 0; i++, squares >>>= 4) {
+            int nibble = (int) squares & 0xF;
+            if (nibble != 0) {
+                board.addPiece(ChessPosition.of(word * 16 + i), ChessPiece.of(nibble - 1));
+            }
+        }
+    }
+
+    /**
+     * Packs whose turn it is and the halfmove clock into an int (see getTeamTurn(int) to read it back)
+     */
+    public static int packState(ChessGame game) {
+        var turn = game.getTeamTurn();
+        int turnBits = turn == null ? GAME_OVER : turn.ordinal();
+        return turnBits | Math.min(game.getHalfmoveClock(), MAX_CLOCK) << TURN_BITS;
+    }
+
+    /**
+     * @return the team to move from a packed state, or null if the game is over
+     */
+    public static ChessGame.TeamColor getTeamTurn(int state) {
+        int turn = state & TURN_MASK;
+        return turn == GAME_OVER ? null : ChessGame.TeamColor.values()[turn];
+    }
+
+    /**
+     * @return the halfmove clock from a packed state
+     */
+    public static int getHalfmoveClock(int state) {
+        return state >>> TURN_BITS;
+    }
+
+    /**
+     * Inflates the game back into a full ChessGame
+     *
+     * @return a new game with the packed board, turn, and halfmove clock
+     */
+    public ChessGame toGame() {
+        var board = new ChessBoard();
+        unpackSquares(squares0, 0, board);
+        unpackSquares(squares1, 1, board);
+        unpackSquares(squares2, 2, board);
+        unpackSquares(squares3, 3, board);
+
+        return new ChessGame(board, getTeamTurn(), getHalfmoveClock());
+    }
+
+    /**
+     * Gets a piece without inflating the game
+     *
+     * @param square the square index, from 0 (row 1, column 1) to 63 (row 8, column 8)
+     * @return the piece on the square, or null if it's empty
+     */
+    public ChessPiece getPiece(int square) {
+        int nibble = nibble(square);
+        return nibble == 0 ? null : ChessPiece.of(nibble - 1);
+    }
+
+    /**
+     * @return the team whose turn it is, or null if the game is over
+     */
+    public ChessGame.TeamColor getTeamTurn() {
+        return getTeamTurn(state);
+    }
+
+    /**
+     * @return the halfmove clock (capped at 65535)
+     */
+    public int getHalfmoveClock() {
+        return getHalfmoveClock(state);
+    }
+
+    private int nibble(int square) {
+        long squares = switch (square >>> 4) {
+            case 0 -> squares0;
+            case 1 -> squares1;
+            case 2 -> squares2;
+            default -> squares3;
+        };
+        return (int) (squares >>> ((square & 15) * 4)) & 0xF;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (!(o instanceof PackedGame other)) {
+            return false;
+        }
+        return squares0 == other.squares0 && squares1 == other.squares1 && squares2 == other.squares2
+                && squares3 == other.squares3 && state == other.state;
+    }
+
+    @Override
+    public int hashCode() {
+        long hash = squares0 * 31 + squares1;
+        hash = hash * 31 + squares2;
+        hash = hash * 31 + squares3;
+        return Long.hashCode(hash * 31 + state);
+    }
+}
@@ -0,0 +1,51 @@
+package chess;
+
+import java.util.SplittableRandom;
+
+/**
+ * Random 64-bit keys for Zobrist hashing. A position's key is the XOR of the key for every piece on
+ * its square (and the side-to-move key when it's black's turn), so adding, removing, or moving a piece
+ * only takes an XOR or two to keep the key up to date.
+ */
+public final class Zobrist {
+
+    // Fixed seed, so keys (and anything stored under them) are the same on every run
+    private static final long SEED = 0x5EED_C0DE_CAFE_F00DL;
+
+    private static final long[][] PIECE_SQUARE_KEYS = new long[12][64];
+    private static final long BLACK_TO_MOVE;
+    private static final long GAME_OVER;
+
+    static {
+        var random = new SplittableRandom(SEED);
+        for (long[] keys : PIECE_SQUARE_KEYS) {
+            for (int square = 0; square < 64; square++) {
+                keys[square] = random.nextLong();
+            }
+        }
+        BLACK_TO_MOVE = random.nextLong();
+        GAME_OVER = random.nextLong();
+    }
+
+    private Zobrist() {
+    }
+
+    /**
+     * @param pieceIndex the piece's bitboard index (color.ordinal() * 6 + type.ordinal())
+     * @param square     the square index
+     * @return the key for that piece standing on that square
+     */
+    public static long pieceSquare(int pieceIndex, int square) {
+        return PIECE_SQUARE_KEYS[pieceIndex][square];
+    }
+
+    /**
+     * @return the key to XOR in for whose turn it is (null meaning the game is over)
+     */
+    public static long sideToMove(ChessGame.TeamColor team) {
+        if (team == null) {
+            return GAME_OVER;
+        }
+        return team == ChessGame.TeamColor.BLACK ? BLACK_TO_MOVE : 0;
+    }
+}
@@ -0,0 +1,223 @@
+package chess.engine;
+
+import chess.ChessBoard;
+import chess.ChessGame;
+import chess.moves.LegalMoveGenerator;
+import chess.moves.Move;
+import chess.moves.MoveList;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Consumer;
+import java.util.function.Supplier;
+
+/**
+ * Picks a move for a ChessGame with an iterative-deepening negamax alpha-beta search.
+ * <p>
+ * The search runs on its own copy of the game's board, making and taking back packed moves in place, so
+ * nothing is allocated per node. Each iteration goes one move deeper than the last and starts with the
+ * best move the transposition table remembers, until it runs out of depth, time, or nodes, or stop() is
+ * called. An unfinished iteration is thrown away and the last finished one is returned.
+ * <p>
+ * With more than one thread, the search is "Lazy SMP": every thread searches the same position on its
+ * own board, sharing only the lock-free transposition table. Half of the helper threads start one ply
+ * deeper than the main thread, so they fill the table with results the main thread hasn't reached yet.
+ * When the main thread finishes, the helpers are stopped and the deepest finished result wins.
+ * <p>
+ * One Engine runs one search at a time; stop() is the only method that's safe to call from another thread.
+ */
+public class Engine implements AutoCloseable {
+
+    public static final int MATE = 100_000;
+    static final int INFINITY = 1_000_000;
+    static final int MAX_PLY = 128;
+
+    private final TranspositionTable table;
+    private final Supplier<Evaluator> evaluators;
+    private final AtomicBoolean stopRequested = new AtomicBoolean();
+    private final AtomicLong sharedNodes = new AtomicLong();
+
+    private final List<SearchWorker> workers = new ArrayList<>();
+    private ExecutorService helperPool;
+    private SearchOptions options = SearchOptions.DEFAULT;
+
+    public Engine() {
+        this(TranspositionTable.ofMegabytes(16));
+    }
+
+    /**
+     * @param table the transposition table to search with (kept between searches)
+     */
+    public Engine(TranspositionTable table) {
+        this(table, PieceSquareEvaluator::new);
+    }
+
+    /**
+     * @param table      the transposition table to search with (kept between searches)
+     * @param evaluators makes an evaluator for each search thread
+     */
+    public Engine(TranspositionTable table, Supplier<Evaluator> evaluators) {
+        this.table = table;
+        this.evaluators = evaluators;
+        startThreads(1);
+    }
+
+    /**
+     * Sets how many threads searches use from now on
+     *
+     * @param threads the thread count, at least 1
+     */
+    public void setThreads(int threads) {
+        if (threads < 1) {
+            throw new IllegalArgumentException("An engine needs at least one thread");
+        }
+        startThreads(threads);
+    }
+
+    // Replaces the workers and helper pool (private so the constructor doesn't call an overridable method)
+    private void startThreads(int threads) {
+        if (helperPool != null) {
+            helperPool.shutdownNow();
+            helperPool = null;
+        }
+
+        workers.clear();
+        for (int i = 0; i < threads; i++) {
+            workers.add(new SearchWorker(table, evaluators.get(), stopRequested, sharedNodes));
+        }
+        if (threads > 1) {
+            helperPool = Executors.newFixedThreadPool(threads - 1, runnable -> {
+                var thread = new Thread(runnable, "search-helper");
+                thread.setDaemon(true);
+                return thread;
+            });
+        }
+    }
+
+    public int getThreads() {
+        return workers.size();
+    }
+
+    /**
+     * Sets which selective search features searches use from now on
+     */
+    public void setOptions(SearchOptions options) {
+        this.options = options;
+    }
+
+    public SearchOptions getOptions() {
+        return options;
+    }
+
+    /**
+     * Searches for the best move for whoever's turn it is. The game itself isn't changed.
+     *
+     * @param game   the game to pick a move in
+     * @param limits when to stop searching
+     * @return the result of the deepest finished iteration
+     */
+    public SearchResult search(ChessGame game, SearchLimits limits) {
+        return search(game, limits, result -> {
+        });
+    }
+
+    /**
+     * Searches for the best move for whoever's turn it is, reporting each iteration the main thread finishes
+     *
+     * @param game        the game to pick a move in
+     * @param limits      when to stop searching
+     * @param onIteration called with the result of every iteration the main thread finishes
+     * @return the result of the deepest finished iteration
+     */
+    public SearchResult search(ChessGame game, SearchLimits limits, Consumer<SearchResult> onIteration) {
+        long start = System.nanoTime();
+        var color = game.getTeamTurn();
+        ChessBoard board = game.getBoard();
+
+        var rootMoves = new MoveList();
+        if (color != null) {
+            LegalMoveGenerator.generate(board, color, rootMoves);
+        }
+        if (rootMoves.isEmpty()) {
+            int kingSquare = color == null ? -1 : board.getKingSquare(color);
+            boolean inCheck = kingSquare >= 0 && board.isSquareAttacked(kingSquare, opponent(color));
+            return new SearchResult(null, inCheck ? -MATE : 0, 0, 0, elapsedMillis(start), List.of());
+        }
+
+        stopRequested.set(false);
+        sharedNodes.set(0);
+        var searchOptions = options;
+
+        List<Future<SearchResult>> helpers = new ArrayList<>();
+        for (int i = 1; i < workers.size(); i++) {
+            var worker = workers.get(i);
+            var helperBoard = board.cloneBoard();
+            int firstDepth = Math.min(1 + i % 2, limits.maxDepth());
+            helpers.add(helperPool.submit(() -> worker.search(helperBoard, color, limits, searchOptions, start, firstDepth,
+                    result -> {
+                    })));
+        }
+
+        SearchResult best = workers.get(0).search(board.cloneBoard(), color, limits, searchOptions, start, 1,
+                onIteration);
+
+        // the main thread is done, so the helpers are too; keep whichever result got deepest
+        stopRequested.set(true);
+        for (var helper : helpers) {
+            var result = waitFor(helper);
+            if (result != null && (best == null || result.depth() > best.depth())) {
+                best = result;
+            }
+        }
+
+        // if time ran out before any iteration finished, any legal move beats no move
+        if (best == null) {
+            var move = Move.toChessMove(rootMoves.get(0));
+            best = new SearchResult(move, 0, 0, 0, 0, List.of(move));
+        }
+        return new SearchResult(best.bestMove(), best.score(), best.depth(), sharedNodes.get(), elapsedMillis(start),
+                best.principalVariation());
+    }
+
+    /**
+     * Asks the search in progress to stop as soon as it can. It still returns its deepest finished iteration.
+     */
+    public void stop() {
+        stopRequested.set(true);
+    }
+
+    /**
+     * Shuts down the helper threads
+     */
+    @Override
+    public void close() {
+        if (helperPool != null) {
+            helperPool.shutdownNow();
+        }
+    }
+
+    private static SearchResult waitFor(Future<SearchResult> helper) {
+        try {
+            return helper.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return null;
+        } catch (ExecutionException e) {
+            throw new IllegalStateException("Search helper failed", e.getCause());
+        }
+    }
+
+    static long elapsedMillis(long start) {
+        return (System.nanoTime() - start) / 1_000_000;
+    }
+
+    static ChessGame.TeamColor opponent(ChessGame.TeamColor color) {
+        return color == ChessGame.TeamColor.WHITE ? ChessGame.TeamColor.BLACK : ChessGame.TeamColor.WHITE;
+    }
+}
@@ -0,0 +1,54 @@
+package chess.engine;
+
+import chess.ChessBoard;
+import chess.ChessGame;
+
+/**
+ * A static evaluation that follows a board through makeMove and unmakeMove, so scoring a position is
+ * cheap no matter how many moves deep it is. Call reset once for a board, then makeMove just before each
+ * ChessBoard.makeMove and unmakeMove just after each ChessBoard.unmakeMove.
+ * <p>
+ * An evaluator belongs to one board at a time, so each search thread needs its own.
+ */
+public interface Evaluator {
+
+    /**
+     * Works out the evaluation of a board from scratch
+     *
+     * @param board the board to follow from now on
+     */
+    void reset(ChessBoard board);
+
+    /**
+     * Updates the evaluation for a move that's about to be made
+     *
+     * @param board the board, still in the position before the move
+     * @param move  the packed move (see chess.moves.Move)
+     */
+    void makeMove(ChessBoard board, int move);
+
+    /**
+     * Goes back to the evaluation from before the last makeMove
+     */
+    void unmakeMove();
+
+    /**
+     * @param sideToMove the team whose turn it is
+     * @return the score in centipawns from sideToMove's point of view
+     */
+    int evaluate(ChessGame.TeamColor sideToMove);
+
+    /**
+     * Evaluates a game's position from scratch, for one-off uses like hints and annotations
+     *
+     * @param game the game to evaluate (whose turn it is decides the point of view)
+     * @return the score in centipawns from the side to move's point of view, or 0 if the game is over
+     */
+    default int evaluate(ChessGame game) {
+        if (game.getTeamTurn() == null) {
+            return 0;
+        }
+        reset(game.getBoard());
+        return evaluate(game.getTeamTurn());
+    }
+}
@@ -0,0 +1,160 @@
+package chess.engine;
+
+import chess.ChessBoard;
+import chess.ChessPiece;
+import chess.moves.Move;
+import chess.moves.MoveList;
+import chess.moves.StaticExchange;
+
+/**
+ * Puts the moves most likely to cause a cutoff first, so alpha-beta can skip more of the tree.
+ * <p>
+ * Each move gets a score: the hash move first, then captures and promotions by most valuable victim /
+ * least valuable attacker, then the two killer moves for the ply (quiet moves that caused a cutoff in a
+ * sibling position), then every other quiet move by its history score (how often that piece moving to
+ * that square has caused a cutoff), and last the captures that lose material once the exchange on their
+ * square plays out. The search then picks the best remaining move one at a time by
+ * swapping it into place, since after a cutoff the rest of the list is never looked at.
+ * <p>
+ * Killers and history are learned during a search, so each search thread keeps its own.
+ */
+class MoveOrdering {
+
+    private static final int HASH_MOVE = 1 << 30;
+    private static final int CAPTURE = 1 << 29;
+    private static final int FIRST_KILLER = (1 << 28) + 1;
+    private static final int SECOND_KILLER = 1 << 28;
+    private static final int LOSING_CAPTURE = -(1 << 28);
+
+    // Keeps history scores below the killer scores
+    private static final int HISTORY_LIMIT = 1 << 20;
+
+    // Capture order by PieceType ordinal (king, queen, bishop, knight, rook, pawn); bishops and knights tie
+    private static final int[] RANKS = {6, 5, 3, 3, 4, 1};
+
+    private final int[][] killers = new int[Engine.MAX_PLY][2];
+    private final int[][] history = new int[12][64];
+
+    /**
+     * Forgets the killers, and halves the history so the last search still counts for something
+     */
+    void newSearch() {
+        for (int[] plyKillers : killers) {
+            plyKillers[0] = Move.NONE;
+            plyKillers[1] = Move.NONE;
+        }
+        ageHistory();
+    }
+
+    /**
+     * Scores every move in a list
+     *
+     * @param board    the board the moves were generated on
+     * @param moves    the moves to score
+     * @param hashMove the transposition table's best move for this position (or Move.NONE)
+     * @param ply      how far the position is from the root
+     * @param scores   filled with one score per move, in the same order
+     */
+    void score(ChessBoard board, MoveList moves, int hashMove, int ply, int[] scores) {
+        for (int i = 0; i < moves.size(); i++) {
+            int move = moves.get(i);
+            scores[i] = scoreMove(board, move, hashMove, ply);
+        }
+    }
+
+    /**
+     * Swaps the best-scoring move from index onward into index (selection sort, one step at a time)
+     *
+     * @return the move now at index
+     */
+    int pickNext(MoveList moves, int[] scores, int index) {
+        int best = index;
+        for (int i = index + 1; i < moves.size(); i++) {
+            if (scores[i] > scores[best]) {
+                best = i;
+            }
+        }
+
+        int move = moves.get(best);
+        if (best != index) {
+            moves.set(best, moves.get(index));
+            moves.set(index, move);
+            int score = scores[best];
+            scores[best] = scores[index];
+            scores[index] = score;
+        }
+        return move;
+    }
+
+    /**
+     * Remembers a quiet move that caused a beta cutoff as a killer for its ply and in the history table
+     *
+     * @param board the board in the position the move was made from
+     */
+    void recordCutoff(ChessBoard board, int move, int depth, int ply) {
+        if (isTactical(move)) {
+            return;
+        }
+
+        int quietMove = Move.withoutFlags(move);
+        if (killers[ply][0] != quietMove) {
+            killers[ply][1] = killers[ply][0];
+            killers[ply][0] = quietMove;
+        }
+
+        int[] pieceHistory = history[pieceIndex(board.getPiece(Move.from(move)))];
+        pieceHistory[Move.to(move)] += depth * depth;
+        if (pieceHistory[Move.to(move)] > HISTORY_LIMIT) {
+            ageHistory();
+        }
+    }
+
+    private int scoreMove(ChessBoard board, int move, int hashMove, int ply) {
+        int quietMove = Move.withoutFlags(move);
+        if (quietMove == hashMove) {
+            return HASH_MOVE;
+        }
+
+        ChessPiece attacker = board.getPiece(Move.from(move));
+        if (isTactical(move)) {
+            // a promotion counts as capturing the piece it turns into
+            var promotion = Move.promotion(move);
+            int victim = Move.isCapture(move) ? RANKS[board.getPiece(Move.to(move)).getPieceType().ordinal()] : 0;
+            if (promotion != null) {
+                victim += RANKS[promotion.ordinal()];
+            }
+            int order = victim * 8 - RANKS[attacker.getPieceType().ordinal()];
+            return StaticExchange.seeGreaterOrEqual(board, move, 0) ? CAPTURE + order : LOSING_CAPTURE + order;
+        }
+
+        if (quietMove == killers[ply][0]) {
+            return FIRST_KILLER;
+        }
+        if (quietMove == killers[ply][1]) {
+            return SECOND_KILLER;
+        }
+        return history[pieceIndex(attacker)][Move.to(move)];
+    }
+
+    private void ageHistory() {
+        for (int[] pieceHistory : history) {
+            for (int square = 0; square < 64; square++) {
+                pieceHistory[square] /= 2;
+            }
+        }
+    }
+
+    // Whether a score belongs to a capture or promotion that doesn't lose material (or the hash move)
+    static boolean isGoodCapture(int score) {
+        return score >= CAPTURE;
+    }
+
+    // Captures and promotions, which are ordered (and searched in quiescence) differently from quiet moves
+    static boolean isTactical(int move) {
+        return Move.isCapture(move) || Move.promotion(move) != null;
+    }
+
+    private static int pieceIndex(ChessPiece piece) {
+        return piece.getTeamColor().ordinal() * 6 + piece.getPieceType().ordinal();
+    }
+}
@@ -0,0 +1,214 @@
+package chess.engine;
+
+import chess.ChessBoard;
+import chess.ChessGame;
+import chess.ChessPiece;
+import chess.moves.Move;
+
+import java.util.Arrays;
+
+/**
+ * Tapered material and piece-square evaluation, kept up to date by deltas.
+ * <p>
+ * Every piece on a square is worth a midgame and an endgame value (material plus a bonus or penalty for
+ * where it stands). The running midgame and endgame sums, and a game phase that drops from 24 toward 0
+ * as knights, bishops, rooks, and queens come off, change only by the pieces a move touches. The score
+ * blends the two sums by phase, so kings hide in the midgame and walk to the center in the endgame.
+ */
+public class PieceSquareEvaluator implements Evaluator {
+
+    private static final int MAX_PHASE = 24;
+
+    // By PieceType ordinal: king, queen, bishop, knight, rook, pawn
+    private static final int[] MIDGAME_VALUES = {0, 1025, 365, 337, 477, 82};
+    private static final int[] ENDGAME_VALUES = {0, 936, 297, 281, 512, 94};
+    private static final int[] PHASE_WEIGHTS = {0, 4, 1, 1, 2, 0};
+
+    // Piece-square tables from white's side, written as the board is drawn: row 8 first, column 1 on the left
+    private static final int[] PAWN_MIDGAME = {
+            0, 0, 0, 0, 0, 0, 0, 0,
+            50, 50, 50, 50, 50, 50, 50, 50,
+            10, 10, 20, 30, 30, 20, 10, 10,
+            5, 5, 10, 25, 25, 10, 5, 5,
+            0, 0, 0, 20, 20, 0, 0, 0,
+            5, -5, -10, 0, 0, -10, -5, 5,
+            5, 10, 10, -20, -20, 10, 10, 5,
+            0, 0, 0, 0, 0, 0, 0, 0
+    };
+
+    private static final int[] PAWN_ENDGAME = {
+            0, 0, 0, 0, 0, 0, 0, 0,
+            80, 80, 80, 80, 80, 80, 80, 80,
+            50, 50, 50, 50, 50, 50, 50, 50,
+            30, 30, 30, 30, 30, 30, 30, 30,
+            15, 15, 15, 15, 15, 15, 15, 15,
+            5, 5, 5, 5, 5, 5, 5, 5,
+            0, 0, 0, 0, 0, 0, 0, 0,
+            0, 0, 0, 0, 0, 0, 0, 0
+    };
+
+    private static final int[] KNIGHT = {
+            -50, -40, -30, -30, -30, -30, -40, -50,
+            -40, -20, 0, 0, 0, 0, -20, -40,
+            -30, 0, 10, 15, 15, 10, 0, -30,
+            -30, 5, 15, 20, 20, 15, 5, -30,
+            -30, 0, 15, 20, 20, 15, 0, -30,
+            -30, 5, 10, 15, 15, 10, 5, -30,
+            -40, -20, 0, 5, 5, 0, -20, -40,
+            -50, -40, -30, -30, -30, -30, -40, -50
+    };
+
+    private static final int[] BISHOP = {
+            -20, -10, -10, -10, -10, -10, -10, -20,
+            -10, 0, 0, 0, 0, 0, 0, -10,
+            -10, 0, 5, 10, 10, 5, 0, -10,
+            -10, 5, 5, 10, 10, 5, 5, -10,
+            -10, 0, 10, 10, 10, 10, 0, -10,
+            -10, 10, 10, 10, 10, 10, 10, -10,
+            -10, 5, 0, 0, 0, 0, 5, -10,
+            -20, -10, -10, -10, -10, -10, -10, -20
+    };
+
+    private static final int[] ROOK = {
+            0, 0, 0, 0, 0, 0, 0, 0,
+            5, 10, 10, 10, 10, 10, 10, 5,
+            -5, 0, 0, 0, 0, 0, 0, -5,
+            -5, 0, 0, 0, 0, 0, 0, -5,
+            -5, 0, 0, 0, 0, 0, 0, -5,
+            -5, 0, 0, 0, 0, 0, 0, -5,
+            -5, 0, 0, 0, 0, 0, 0, -5,
+            0, 0, 0, 5, 5, 0, 0, 0
+    };
+
+    private static final int[] QUEEN = {
+            -20, -10, -10, -5, -5, -10, -10, -20,
+            -10, 0, 0, 0, 0, 0, 0, -10,
+            -10, 0, 5, 5, 5, 5, 0, -10,
+            -5, 0, 5, 5, 5, 5, 0, -5,
+            0, 0, 5, 5, 5, 5, 0, -5,
+            -10, 5, 5, 5, 5, 5, 0, -10,
+            -10, 0, 5, 0, 0, 0, 0, -10,
+            -20, -10, -10, -5, -5, -10, -10, -20
+    };
+
+    private static final int[] KING_MIDGAME = {
+            -30, -40, -40, -50, -50, -40, -40, -30,
+            -30, -40, -40, -50, -50, -40, -40, -30,
+            -30, -40, -40, -50, -50, -40, -40, -30,
+            -30, -40, -40, -50, -50, -40, -40, -30,
+            -20, -30, -30, -40, -40, -30, -30, -20,
+            -10, -20, -20, -20, -20, -20, -20, -10,
+            20, 20, 0, 0, 0, 0, 20, 20,
+            20, 30, 10, 0, 0, 10, 30, 20
+    };
+
+    private static final int[] KING_ENDGAME = {
+            -50, -40, -30, -20, -20, -30, -40, -50,
+            -30, -20, -10, 0, 0, -10, -20, -30,
+            -30, -10, 20, 30, 30, 20, -10, -30,
+            -30, -10, 30, 40, 40, 30, -10, -30,
+            -30, -10, 30, 40, 40, 30, -10, -30,
+            -30, -10, 20, 30, 30, 20, -10, -30,
+            -30, -30, 0, 0, 0, 0, -30, -30,
+            -50, -30, -30, -30, -30, -30, -30, -50
+    };
+
+    // Material plus table value for every piece index (color * 6 + type) and square, negated for black
+    // so the sums are always from white's side
+    private static final int[][] MIDGAME = new int[12][64];
+    private static final int[][] ENDGAME = new int[12][64];
+
+    static {
+        int[][] midgameTables = {KING_MIDGAME, QUEEN, BISHOP, KNIGHT, ROOK, PAWN_MIDGAME};
+        int[][] endgameTables = {KING_ENDGAME, QUEEN, BISHOP, KNIGHT, ROOK, PAWN_ENDGAME};
+
+        for (int type = 0; type < 6; type++) {
+            for (int square = 0; square < 64; square++) {
+                // the tables are drawn with row 8 first; black reads them upside down
+                int whiteIndex = square ^ 56;
+                int blackIndex = square;
+                MIDGAME[type][square] = MIDGAME_VALUES[type] + midgameTables[type][whiteIndex];
+                ENDGAME[type][square] = ENDGAME_VALUES[type] + endgameTables[type][whiteIndex];
+                MIDGAME[type + 6][square] = -(MIDGAME_VALUES[type] + midgameTables[type][blackIndex]);
+                ENDGAME[type + 6][square] = -(ENDGAME_VALUES[type] + endgameTables[type][blackIndex]);
+            }
+        }
+    }
+
+    private int midgame;
+    private int endgame;
+    private int phase;
+
+    // Sums from before each move, three ints per move, for unmakeMove
+    private int[] history = new int[3 * 64];
+    private int historySize;
+
+    @Override
+    public void reset(ChessBoard board) {
+        midgame = 0;
+        endgame = 0;
+        phase = 0;
+        historySize = 0;
+
+        for (long pieces = board.getOccupied(); pieces != 0; pieces &= pieces - 1) {
+            int square = Long.numberOfTrailingZeros(pieces);
+            add(pieceIndex(board.getPiece(square)), square);
+        }
+    }
+
+    @Override
+    public void makeMove(ChessBoard board, int move) {
+        if (historySize == history.length) {
+            history = Arrays.copyOf(history, historySize * 2);
+        }
+        history[historySize++] = midgame;
+        history[historySize++] = endgame;
+        history[historySize++] = phase;
+
+        int from = Move.from(move);
+        int to = Move.to(move);
+        ChessPiece moved = board.getPiece(from);
+        ChessPiece captured = board.getPiece(to);
+
+        int movedIndex = pieceIndex(moved);
+        remove(movedIndex, from);
+        if (captured != null) {
+            remove(pieceIndex(captured), to);
+        }
+
+        var promotion = Move.promotion(move);
+        int placedIndex = promotion == null ? movedIndex : moved.getTeamColor().ordinal() * 6 + promotion.ordinal();
+        add(placedIndex, to);
+    }
+
+    @Override
+    public void unmakeMove() {
+        phase = history[--historySize];
+        endgame = history[--historySize];
+        midgame = history[--historySize];
+    }
+
+    @Override
+    public int evaluate(ChessGame.TeamColor sideToMove) {
+        // promotions can push the phase past the starting total
+        int clampedPhase = Math.min(phase, MAX_PHASE);
+        int score = (midgame * clampedPhase + endgame * (MAX_PHASE - clampedPhase)) / MAX_PHASE;
+        return sideToMove == ChessGame.TeamColor.WHITE ? score : -score;
+    }
+
+    private void add(int pieceIndex, int square) {
+        midgame += MIDGAME[pieceIndex][square];
+        endgame += ENDGAME[pieceIndex][square];
+        phase += PHASE_WEIGHTS[pieceIndex % 6];
+    }
+
+    private void remove(int pieceIndex, int square) {
+        midgame -= MIDGAME[pieceIndex][square];
+        endgame -= ENDGAME[pieceIndex][square];
+        phase -= PHASE_WEIGHTS[pieceIndex % 6];
+    }
+
+    private static int pieceIndex(ChessPiece piece) {
+        return piece.getTeamColor().ordinal() * 6 + piece.getPieceType().ordinal();
+    }
+}
@@ -0,0 +1,43 @@
+package chess.engine;
+
+/**
+ * How far a search is allowed to go. It stops at whichever limit it reaches first.
+ *
+ * @param maxDepth  the deepest iteration to search (1 to MAX_DEPTH)
+ * @param maxMillis wall-clock budget in milliseconds (0 for none)
+ * @param maxNodes  node budget (0 for none)
+ */
+public record SearchLimits(int maxDepth, long maxMillis, long maxNodes) {
+
+    public static final int MAX_DEPTH = 64;
+
+    public SearchLimits {
+        if (maxDepth < 1 || maxDepth > MAX_DEPTH) {
+            throw new IllegalArgumentException("Search depth must be between 1 and " + MAX_DEPTH);
+        }
+        if (maxMillis < 0 || maxNodes < 0) {
+            throw new IllegalArgumentException("Time and node budgets can't be negative");
+        }
+    }
+
+    /**
+     * @return limits that search to a fixed depth with no time or node budget
+     */
+    public static SearchLimits depth(int depth) {
+        return new SearchLimits(depth, 0, 0);
+    }
+
+    /**
+     * @return limits that search as deep as they can within a wall-clock budget
+     */
+    public static SearchLimits millis(long millis) {
+        return new SearchLimits(MAX_DEPTH, millis, 0);
+    }
+
+    /**
+     * @return these limits with a node budget added
+     */
+    public SearchLimits withNodes(long nodes) {
+        return new SearchLimits(maxDepth, maxMillis, nodes);
+    }
+}
@@ -0,0 +1,36 @@
+package chess.engine;
+
+/**
+ * Switches for the selective parts of the search, so each one can be measured on its own
+ * (see SearchOptionsBenchmark). Everything is on by default.
+ *
+ * @param quiescence         keep searching captures past the depth limit, so leaves aren't scored in the
+ *                           middle of an exchange
+ * @param nullMove           skip a turn at reduced depth, and prune if the position is still too good for
+ *                           the opponent to allow
+ * @param lateMoveReductions search quiet moves late in the ordering one ply shallower, and only
+ *                           re-search them if they turn out to matter
+ * @param aspirationWindows  start each iteration with a narrow window around the last score
+ */
+public record SearchOptions(boolean quiescence, boolean nullMove, boolean lateMoveReductions,
+                            boolean aspirationWindows) {
+
+    public static final SearchOptions DEFAULT = new SearchOptions(true, true, true, true);
+    public static final SearchOptions NONE = new SearchOptions(false, false, false, false);
+
+    public SearchOptions withQuiescence(boolean enabled) {
+        return new SearchOptions(enabled, nullMove, lateMoveReductions, aspirationWindows);
+    }
+
+    public SearchOptions withNullMove(boolean enabled) {
+        return new SearchOptions(quiescence, enabled, lateMoveReductions, aspirationWindows);
+    }
+
+    public SearchOptions withLateMoveReductions(boolean enabled) {
+        return new SearchOptions(quiescence, nullMove, enabled, aspirationWindows);
+    }
+
+    public SearchOptions withAspirationWindows(boolean enabled) {
+        return new SearchOptions(quiescence, nullMove, lateMoveReductions, enabled);
+    }
+}
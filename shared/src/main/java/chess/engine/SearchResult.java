@@ -0,0 +1,27 @@
+package chess.engine;
+
+import chess.ChessMove;
+
+import java.util.List;
+
+/**
+ * The outcome of a search (or of one finished iteration of it)
+ *
+ * @param bestMove           the move to play, or null if the side to move has no legal moves
+ * @param score              centipawns from the side to move's point of view; mates are scored
+ *                           near Engine.MATE
+ * @param depth              the deepest iteration that finished
+ * @param nodes              positions visited
+ * @param elapsedMillis      time taken so far
+ * @param principalVariation the line of best play the score comes from, starting with bestMove
+ */
+public record SearchResult(ChessMove bestMove, int score, int depth, long nodes, long elapsedMillis,
+                           List<ChessMove> principalVariation) {
+
+    /**
+     * @return true if the score is a forced mate for either side
+     */
+    public boolean isMate() {
+        return Math.abs(score) >= Engine.MATE - Engine.MAX_PLY;
+    }
+}
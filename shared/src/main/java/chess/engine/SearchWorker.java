@@ -0,0 +1,372 @@
+package chess.engine;
+
+import chess.ChessBoard;
+import chess.ChessGame;
+import chess.ChessMove;
+import chess.ChessPiece;
+import chess.Zobrist;
+import chess.moves.LegalMoveGenerator;
+import chess.moves.Move;
+import chess.moves.MoveList;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Consumer;
+
+/**
+ * One thread's share of a search: an iterative-deepening negamax alpha-beta search on its own copy of
+ * the board, with its own move lists and PV table. Workers only share the transposition table, the stop
+ * flag, and the node count, so any number of them can search the same position at once (see Engine).
+ */
+class SearchWorker {
+
+    // How often (in nodes) to look at the clock, the stop flag, and the shared node count
+    private static final int CHECK_INTERVAL = 2048;
+
+    // Aspiration windows start this wide (in centipawns) and grow 4x each time the score falls outside
+    private static final int ASPIRATION_WINDOW = 50;
+    private static final int MAX_ASPIRATION_WINDOW = 1000;
+
+    // Null-move and late-move reduction settings
+    private static final int NULL_MOVE_REDUCTION = 2;
+    private static final int REDUCTION_MIN_DEPTH = 3;
+    private static final int REDUCTION_MIN_MOVES = 3;
+
+    private final TranspositionTable table;
+    private final Evaluator evaluator;
+    private final AtomicBoolean stopRequested;
+    private final AtomicLong sharedNodes;
+
+    // State for the search in progress
+    private ChessBoard board;
+    private SearchOptions options;
+    private long nodes;
+    private long reportedNodes;
+    private long nodeLimit;
+    private long deadline;
+    private boolean stopped;
+
+    private final MoveList[] moveLists = new MoveList[Engine.MAX_PLY];
+    private final int[][] pvTable = new int[Engine.MAX_PLY][Engine.MAX_PLY];
+    private final int[] pvLength = new int[Engine.MAX_PLY];
+
+    // Move ordering scores for each ply's move list
+    private final MoveOrdering ordering = new MoveOrdering();
+    private final int[][] moveScores = new int[Engine.MAX_PLY][256];
+
+    SearchWorker(TranspositionTable table, Evaluator evaluator, AtomicBoolean stopRequested, AtomicLong sharedNodes) {
+        this.table = table;
+        this.evaluator = evaluator;
+        this.stopRequested = stopRequested;
+        this.sharedNodes = sharedNodes;
+        for (int ply = 0; ply < Engine.MAX_PLY; ply++) {
+            moveLists[ply] = new MoveList();
+        }
+    }
+
+    /**
+     * Runs iterative deepening until a limit is reached, the stop flag is set, or a mate is found
+     *
+     * @param board       the board to search (this worker's own copy; it's changed while searching)
+     * @param color       the side to move
+     * @param limits      when to stop
+     * @param options     which selective search features to use
+     * @param start       System.nanoTime() when the whole search started
+     * @param firstDepth  the depth of the first iteration
+     * @param onIteration called with the result of every iteration that finishes
+     * @return the last finished iteration, or null if none finished
+     */
+    SearchResult search(ChessBoard board, ChessGame.TeamColor color, SearchLimits limits, SearchOptions options,
+                        long start, int firstDepth, Consumer<SearchResult> onIteration) {
+        this.board = board;
+        this.options = options;
+        evaluator.reset(board);
+        ordering.newSearch();
+        nodes = 0;
+        reportedNodes = 0;
+        nodeLimit = limits.maxNodes();
+        deadline = limits.maxMillis() == 0 ? Long.MAX_VALUE : start + limits.maxMillis() * 1_000_000;
+        stopped = false;
+
+        SearchResult result = null;
+        for (int depth = firstDepth; depth <= limits.maxDepth(); depth++) {
+            int score = searchRoot(depth, result == null ? 0 : result.score(), color);
+            if (stopped || pvLength[0] == 0) {
+                break;
+            }
+
+            var pv = principalVariation();
+            result = new SearchResult(pv.get(0), score, depth, nodes, Engine.elapsedMillis(start), pv);
+            onIteration.accept(result);
+
+            // a forced mate won't get any better by searching deeper
+            if (result.isMate()) {
+                break;
+            }
+        }
+
+        sharedNodes.addAndGet(nodes - reportedNodes);
+        reportedNodes = nodes;
+        return result;
+    }
+
+    // Search the root with a narrow window around the last iteration's score, widening it whenever
+    // the real score falls outside
+    private int searchRoot(int depth, int previousScore, ChessGame.TeamColor color) {
+        if (!options.aspirationWindows() || depth < 4 || Math.abs(previousScore) >= Engine.MATE - Engine.MAX_PLY) {
+            return negamax(depth, -Engine.INFINITY, Engine.INFINITY, 0, color, true);
+        }
+
+        int window = ASPIRATION_WINDOW;
+        while (true) {
+            int alpha = window > MAX_ASPIRATION_WINDOW ? -Engine.INFINITY : previousScore - window;
+            int beta = window > MAX_ASPIRATION_WINDOW ? Engine.INFINITY : previousScore + window;
+            int score = negamax(depth, alpha, beta, 0, color, true);
+            if (stopped || (score > alpha && score < beta)) {
+                return score;
+            }
+            window *= 4;
+        }
+    }
+
+    private int negamax(int depth, int alpha, int beta, int ply, ChessGame.TeamColor color, boolean allowNullMove) {
+        if (depth <= 0 && options.quiescence()) {
+            return quiescence(alpha, beta, ply, color);
+        }
+
+        pvLength[ply] = 0;
+        if (shouldStop()) {
+            return 0;
+        }
+        nodes++;
+
+        if (depth <= 0 || ply == Engine.MAX_PLY - 1) {
+            return evaluator.evaluate(color);
+        }
+
+        long key = board.positionKey() ^ Zobrist.sideToMove(color);
+        long entry = table.probe(key);
+        int hashMove = entry == 0 ? Move.NONE : TranspositionTable.move(entry);
+
+        // a deep enough earlier search of this position may already settle it (never at the root,
+        // which needs a move to return)
+        if (entry != 0 && ply > 0 && TranspositionTable.depth(entry) >= depth) {
+            int score = scoreFromTable(TranspositionTable.score(entry), ply);
+            int bound = TranspositionTable.bound(entry);
+            if (bound == TranspositionTable.EXACT
+                    || (bound == TranspositionTable.LOWER_BOUND && score >= beta)
+                    || (bound == TranspositionTable.UPPER_BOUND && score <= alpha)) {
+                return score;
+            }
+        }
+
+        boolean inCheck = isInCheck(color);
+        var other = Engine.opponent(color);
+        if (allowNullMove && ply > 0 && !inCheck && nullMoveCutoff(depth, beta, ply, color)) {
+            return beta;
+        }
+
+        var moves = moveLists[ply];
+        moves.clear();
+        LegalMoveGenerator.generate(board, color, moves);
+        if (moves.isEmpty()) {
+            return inCheck ? -Engine.MATE + ply : 0;
+        }
+        ordering.score(board, moves, hashMove, ply, scoresFor(ply, moves.size()));
+
+        int originalAlpha = alpha;
+        int bestScore = -Engine.INFINITY;
+        int bestMove = Move.NONE;
+
+        for (int i = 0; i < moves.size(); i++) {
+            int move = ordering.pickNext(moves, moveScores[ply], i);
+            makeMove(move);
+            int score;
+            if (canReduce(depth, i, inCheck, move, other)) {
+                // a late quiet move probably isn't good, so check that with a shallower null-window search
+                // first, and only search it properly if it beats alpha after all
+                score = -negamax(depth - 2, -alpha - 1, -alpha, ply + 1, other, true);
+                if (score > alpha) {
+                    score = -negamax(depth - 1, -beta, -alpha, ply + 1, other, true);
+                }
+            } else {
+                score = -negamax(depth - 1, -beta, -alpha, ply + 1, other, true);
+            }
+            unmakeMove();
+
+            if (stopped) {
+                return 0;
+            }
+            if (score > bestScore) {
+                bestScore = score;
+                bestMove = move;
+            }
+            if (score > alpha) {
+                alpha = score;
+                updatePrincipalVariation(ply, move);
+            }
+            if (alpha >= beta) {
+                ordering.recordCutoff(board, move, depth, ply);
+                break;
+            }
+        }
+
+        int bound = bestScore >= beta ? TranspositionTable.LOWER_BOUND
+                : bestScore > originalAlpha ? TranspositionTable.EXACT : TranspositionTable.UPPER_BOUND;
+        table.store(key, depth, scoreToTable(bestScore, ply), bound, Move.withoutFlags(bestMove));
+        return bestScore;
+    }
+
+    // Captures-only search past the depth limit. The side to move can "stand pat" on the static score
+    // instead of capturing, unless it's in check, in which case every evasion is searched.
+    private int quiescence(int alpha, int beta, int ply, ChessGame.TeamColor color) {
+        pvLength[ply] = 0;
+        if (shouldStop()) {
+            return 0;
+        }
+        nodes++;
+
+        if (ply == Engine.MAX_PLY - 1) {
+            return evaluator.evaluate(color);
+        }
+
+        boolean inCheck = isInCheck(color);
+        int bestScore = -Engine.INFINITY;
+        if (!inCheck) {
+            bestScore = evaluator.evaluate(color);
+            if (bestScore >= beta) {
+                return bestScore;
+            }
+            alpha = Math.max(alpha, bestScore);
+        }
+
+        var moves = moveLists[ply];
+        moves.clear();
+        LegalMoveGenerator.generate(board, color, moves);
+        if (moves.isEmpty()) {
+            return inCheck ? -Engine.MATE + ply : 0;
+        }
+        ordering.score(board, moves, Move.NONE, ply, scoresFor(ply, moves.size()));
+
+        var other = Engine.opponent(color);
+        for (int i = 0; i < moves.size(); i++) {
+            int move = ordering.pickNext(moves, moveScores[ply], i);
+
+            // captures that don't lose material sort ahead of everything else, so the first move that
+            // isn't one ends the list
+            if (!inCheck && !MoveOrdering.isGoodCapture(moveScores[ply][i])) {
+                break;
+            }
+
+            makeMove(move);
+            int score = -quiescence(-beta, -alpha, ply + 1, other);
+            unmakeMove();
+
+            if (stopped) {
+                return 0;
+            }
+            bestScore = Math.max(bestScore, score);
+            alpha = Math.max(alpha, score);
+            if (alpha >= beta) {
+                break;
+            }
+        }
+        return bestScore;
+    }
+
+    // Give the opponent a free move with a reduced search. If we're still at or above beta, a real move
+    // would almost surely be too, so this node can be cut. Positions with only pawns (and the king) left
+    // are skipped, since zugzwang, where any move makes things worse, is common there.
+    private boolean nullMoveCutoff(int depth, int beta, int ply, ChessGame.TeamColor color) {
+        if (!options.nullMove() || depth < REDUCTION_MIN_DEPTH || Math.abs(beta) >= Engine.MATE - Engine.MAX_PLY
+                || !hasPiecesOtherThanPawns(color) || evaluator.evaluate(color) < beta) {
+            return false;
+        }
+
+        int score = -negamax(depth - 1 - NULL_MOVE_REDUCTION, -beta, -beta + 1, ply + 1, Engine.opponent(color), false);
+        return !stopped && score >= beta;
+    }
+
+    // Late-move reductions apply to quiet moves that come late in the ordering and don't give check
+    private boolean canReduce(int depth, int moveNumber, boolean inCheck, int move, ChessGame.TeamColor other) {
+        return options.lateMoveReductions() && depth >= REDUCTION_MIN_DEPTH && moveNumber >= REDUCTION_MIN_MOVES
+                && !inCheck && !MoveOrdering.isTactical(move) && !isInCheck(other);
+    }
+
+    private boolean hasPiecesOtherThanPawns(ChessGame.TeamColor color) {
+        long pawnsAndKing = board.getPieces(color, ChessPiece.PieceType.PAWN)
+                | board.getPieces(color, ChessPiece.PieceType.KING);
+        return (board.getPieces(color) & ~pawnsAndKing) != 0;
+    }
+
+    private void makeMove(int move) {
+        evaluator.makeMove(board, move);
+        board.makeMove(Move.from(move), Move.to(move), Move.promotion(move));
+    }
+
+    private void unmakeMove() {
+        board.unmakeMove();
+        evaluator.unmakeMove();
+    }
+
+    private boolean shouldStop() {
+        if (stopped) {
+            return true;
+        }
+        if (nodeLimit > 0 && nodes >= nodeLimit) {
+            stopped = true;
+        } else if (nodes % CHECK_INTERVAL == 0) {
+            // the node budget covers every thread, so add this worker's nodes to the shared count
+            long totalNodes = sharedNodes.addAndGet(nodes - reportedNodes);
+            reportedNodes = nodes;
+            stopped = stopRequested.get() || System.nanoTime() >= deadline
+                    || (nodeLimit > 0 && totalNodes >= nodeLimit);
+        }
+        return stopped;
+    }
+
+    private boolean isInCheck(ChessGame.TeamColor color) {
+        int kingSquare = board.getKingSquare(color);
+        return kingSquare >= 0 && board.isSquareAttacked(kingSquare, Engine.opponent(color));
+    }
+
+    // Mate scores are stored relative to the node rather than the root, so they stay right when the
+    // same position turns up at a different ply
+    private static int scoreToTable(int score, int ply) {
+        if (score >= Engine.MATE - Engine.MAX_PLY) {
+            return score + ply;
+        }
+        return score <= -Engine.MATE + Engine.MAX_PLY ? score - ply : score;
+    }
+
+    private static int scoreFromTable(int score, int ply) {
+        if (score >= Engine.MATE - Engine.MAX_PLY) {
+            return score - ply;
+        }
+        return score <= -Engine.MATE + Engine.MAX_PLY ? score + ply : score;
+    }
+
+    // The score array for a ply, grown in the rare case a position has more moves than it holds
+    private int[] scoresFor(int ply, int size) {
+        if (moveScores[ply].length < size) {
+            moveScores[ply] = new int[size];
+        }
+        return moveScores[ply];
+    }
+
+    private void updatePrincipalVariation(int ply, int move) {
+        pvTable[ply][0] = move;
+        System.arraycopy(pvTable[ply + 1], 0, pvTable[ply], 1, pvLength[ply + 1]);
+        pvLength[ply] = pvLength[ply + 1] + 1;
+    }
+
+    private List<ChessMove> principalVariation() {
+        List<ChessMove> pv = new ArrayList<>(pvLength[0]);
+        for (int i = 0; i < pvLength[0]; i++) {
+            pv.add(Move.toChessMove(pvTable[0][i]));
+        }
+        return pv;
+    }
+}
@@ -0,0 +1,170 @@
+package chess.engine;
+
+import java.util.Arrays;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * A fixed-size hash table of search results, keyed by a position's Zobrist key (see ChessGame.positionKey).
+ * <p>
+ * Each entry is two longs: the key XORed with the data, then the data itself (depth, score, bound type,
+ * and best move packed together). Readers and writers don't lock. If two threads write the same slot at
+ * once, a reader can see one thread's key word with the other thread's data word, but then key ^ data no
+ * longer matches the key being probed, so the torn entry just reads as a miss.
+ */
+public final class TranspositionTable {
+
+    // Bound types: the stored score is exact, or the real score is at least / at most the stored one
+    public static final int EXACT = 0;
+    public static final int LOWER_BOUND = 1;
+    public static final int UPPER_BOUND = 2;
+
+    // Data layout: bits 0-15 move, 16-47 score, 48-55 depth, 56-57 bound, 58 set for every stored entry
+    private static final long VALID = 1L << 58;
+
+    private final long[] slots;
+    private final int mask;
+
+    private final LongAdder probes = new LongAdder();
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder stores = new LongAdder();
+
+    /**
+     * @param entries how many entries the table holds (a power of two)
+     * @throws IllegalArgumentException if entries isn't a positive power of two
+     */
+    public TranspositionTable(int entries) {
+        if (entries <= 0 || Integer.bitCount(entries) != 1 || entries > (1 << 29)) {
+            throw new IllegalArgumentException("Table size must be a power of two up to 2^29, not " + entries);
+        }
+        slots = new long[entries * 2];
+        mask = entries - 1;
+    }
+
+    /**
+     * Makes a table of the biggest power-of-two size that fits in the given number of megabytes
+     */
+    public static TranspositionTable ofMegabytes(int megabytes) {
+        long entries = Math.max(1, (long) megabytes * 1024 * 1024 / 16);
+        return new TranspositionTable((int) Long.highestOneBit(Math.min(entries, 1 << 29)));
+    }
+
+    /**
+     * Looks up a position
+     *
+     * @param key the position's Zobrist key
+     * @return the packed entry (read it with move, score, depth, and bound), or 0 if there isn't one
+     */
+    public long probe(long key) {
+        probes.increment();
+        int index = ((int) key & mask) << 1;
+        long data = slots[index + 1];
+        if ((slots[index] ^ data) != key || data == 0) {
+            return 0;
+        }
+        hits.increment();
+        return data;
+    }
+
+    /**
+     * Stores a search result, replacing whatever was in the slot unless it's a deeper search
+     * of the same position
+     *
+     * @param key   the position's Zobrist key
+     * @param depth how deep the search went (0 to 255)
+     * @param score the score found
+     * @param bound EXACT, LOWER_BOUND, or UPPER_BOUND
+     * @param move  the best move found as a packed move (see chess.moves.Move), or Move.NONE
+     */
+    public void store(long key, int depth, int score, int bound, int move) {
+        int index = ((int) key & mask) << 1;
+        long oldData = slots[index + 1];
+        boolean samePosition = (slots[index] ^ oldData) == key && oldData != 0;
+
+        if (samePosition) {
+            if (depth(oldData) > depth) {
+                return;
+            }
+            // keep the old best move rather than forgetting it
+            if (move == 0) {
+                move = move(oldData);
+            }
+        }
+
+        long data = (move & 0xFFFFL) | (score & 0xFFFFFFFFL) << 16 | (long) (depth & 0xFF) << 48
+                | (long) bound << 56 | VALID;
+        slots[index] = key ^ data;
+        slots[index + 1] = data;
+        stores.increment();
+    }
+
+    public static int move(long entry) {
+        return (int) (entry & 0xFFFF);
+    }
+
+    public static int score(long entry) {
+        return (int) (entry >>> 16);
+    }
+
+    public static int depth(long entry) {
+        return (int) (entry >>> 48) & 0xFF;
+    }
+
+    public static int bound(long entry) {
+        return (int) (entry >>> 56) & 0x3;
+    }
+
+    /**
+     * Empties the table and resets its statistics
+     */
+    public void clear() {
+        Arrays.fill(slots, 0);
+        probes.reset();
+        hits.reset();
+        stores.reset();
+    }
+
+    public int capacity() {
+        return mask + 1;
+    }
+
+    public long probes() {
+        return probes.sum();
+    }
+
+    public long hits() {
+        return hits.sum();
+    }
+
+    public long stores() {
+        return stores.sum();
+    }
+
+    /**
+     * @return the fraction of probes that found their position
+     */
+    public double hitRate() {
+        long probeCount = probes.sum();
+        return probeCount == 0 ? 0 : (double) hits.sum() / probeCount;
+    }
+
+    /**
+     * Counts the used slots. This walks the whole table, so it's meant for reports, not the search itself.
+     *
+     * @return the fraction of slots holding an entry
+     */
+    public double occupancy() {
+        int used = 0;
+        for (int i = 1; i < slots.length; i += 2) {
+            if (slots[i] != 0) {
+                used++;
+            }
+        }
+        return (double) used / capacity();
+    }
+
+    @Override
+    public String toString() {
+        return String.format("TranspositionTable{entries=%d, probes=%d, hits=%d (%.1f%%), stores=%d, occupancy=%.1f%%}",
+                capacity(), probes(), hits(), hitRate() * 100, stores(), occupancy() * 100);
+    }
+}
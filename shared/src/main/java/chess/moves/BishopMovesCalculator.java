@@ -2,24 +2,17 @@ package chess.moves;
 
 import chess.*;
 
-import java.util.Collection;
-
 public class BishopMovesCalculator extends MovesCalculator {
 
     BishopMovesCalculator(ChessBoard board, ChessPosition initialPos, ChessPiece piece) {
         super(board, initialPos, piece);
     }
 
-    public Collection<ChessMove> pieceMoves() {
-        var initialRow = initialPos.getRow();
-        var initialCol = initialPos.getColumn();
-
-        // calculate moves in 4 directions
-        calculateOneDirection(initialRow, initialCol, 1, 1);
-        calculateOneDirection(initialRow, initialCol, -1, 1);
-        calculateOneDirection(initialRow, initialCol, -1, -1);
-        calculateOneDirection(initialRow, initialCol, 1, -1);
+    static void addMoves(ChessBoard board, int square, ChessGame.TeamColor color, long allowed, MoveList moves) {
+        // look up every diagonal square the bishop attacks in the magic bitboard tables
+        long attacks = MagicBitboards.bishopAttacks(square, board.getOccupied());
 
-        return newMoves;
+        // you can't move onto a piece that's the same color
+        addMovesTo(board, square, attacks & ~board.getPieces(color) & allowed, moves);
     }
-}
\ No newline at end of file
+}
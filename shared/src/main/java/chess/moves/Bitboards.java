@@ -0,0 +1,155 @@
+package chess.moves;
+
+import chess.*;
+
+/**
+ * Bit-level helpers for the bitboard representation used by ChessBoard.
+ * <p>
+ * Squares are numbered 0 to 63, starting at row 1 column 1 (a1) and moving
+ * across each row, so square = (row - 1) * 8 + (column - 1).
+ */
+public final class Bitboards {
+
+    public static final long FILE_A = 0x0101010101010101L;
+    public static final long FILE_H = FILE_A << 7;
+    public static final long RANK_1 = 0xFFL;
+    public static final long RANK_8 = RANK_1 << 56;
+
+    // Precomputed attack sets for the pieces that don't slide
+    private static final long[] KNIGHT_ATTACKS = new long[64];
+    private static final long[] KING_ATTACKS = new long[64];
+    private static final long[][] PAWN_ATTACKS = new long[2][64];
+
+    // Squares strictly between two squares that share a row, column, or diagonal (and the whole line through them)
+    private static final long[][] BETWEEN = new long[64][64];
+    private static final long[][] LINE = new long[64][64];
+
+    static {
+        for (int square = 0; square < 64; square++) {
+            int row = row(square);
+            int col = column(square);
+
+            KNIGHT_ATTACKS[square] = stepAttacks(row, col, new int[][]{
+                    {1, -2}, {2, -1}, {2, 1}, {1, 2}, {-1, 2}, {-2, 1}, {-1, -2}, {-2, -1}});
+            KING_ATTACKS[square] = stepAttacks(row, col, new int[][]{
+                    {1, -1}, {1, 0}, {1, 1}, {0, 1}, {-1, 1}, {-1, 0}, {-1, -1}, {0, -1}});
+            PAWN_ATTACKS[ChessGame.TeamColor.WHITE.ordinal()][square] = stepAttacks(row, col, new int[][]{{1, -1}, {1, 1}});
+            PAWN_ATTACKS[ChessGame.TeamColor.BLACK.ordinal()][square] = stepAttacks(row, col, new int[][]{{-1, -1}, {-1, 1}});
+        }
+
+        for (int a = 0; a < 64; a++) {
+            for (int b = 0; b < 64; b++) {
+                fillLines(a, b);
+            }
+        }
+    }
+
+    private Bitboards() {
+    }
+
+    /**
+     * @return the square index (0 to 63) of a 1-indexed row and column
+     */
+    public static int square(int row, int col) {
+        return (row - 1) * 8 + (col - 1);
+    }
+
+    /**
+     * @return the square index of a position
+     */
+    public static int square(ChessPosition position) {
+        return square(position.getRow(), position.getColumn());
+    }
+
+    /**
+     * @return the 1-indexed row of a square index
+     */
+    public static int row(int square) {
+        return (square >>> 3) + 1;
+    }
+
+    /**
+     * @return the 1-indexed column of a square index
+     */
+    public static int column(int square) {
+        return (square & 7) + 1;
+    }
+
+    /**
+     * @return the shared position for a square index
+     */
+    public static ChessPosition position(int square) {
+        return ChessPosition.of(square);
+    }
+
+    public static long knightAttacks(int square) {
+        return KNIGHT_ATTACKS[square];
+    }
+
+    public static long kingAttacks(int square) {
+        return KING_ATTACKS[square];
+    }
+
+    /**
+     * @return the squares a pawn of the given color on the given square attacks diagonally
+     */
+    public static long pawnAttacks(ChessGame.TeamColor color, int square) {
+        return PAWN_ATTACKS[color.ordinal()][square];
+    }
+
+    public static long bishopAttacks(int square, long occupied) {
+        return MagicBitboards.bishopAttacks(square, occupied);
+    }
+
+    public static long rookAttacks(int square, long occupied) {
+        return MagicBitboards.rookAttacks(square, occupied);
+    }
+
+    public static long queenAttacks(int square, long occupied) {
+        return MagicBitboards.queenAttacks(square, occupied);
+    }
+
+    /**
+     * @return the squares strictly between two squares on the same row, column, or diagonal
+     * (empty if they don't share one)
+     */
+    public static long between(int a, int b) {
+        return BETWEEN[a][b];
+    }
+
+    /**
+     * @return the whole row, column, or diagonal running through two squares
+     * (empty if they don't share one)
+     */
+    public static long line(int a, int b) {
+        return LINE[a][b];
+    }
+
+    private static void fillLines(int a, int b) {
+        long bitA = 1L << a;
+        long bitB = 1L << b;
+        if (a == b) {
+            return;
+        }
+
+        if ((MagicBitboards.rookAttacks(a, 0) & bitB) != 0) {
+            BETWEEN[a][b] = MagicBitboards.rookAttacks(a, bitB) & MagicBitboards.rookAttacks(b, bitA);
+            LINE[a][b] = (MagicBitboards.rookAttacks(a, 0) & MagicBitboards.rookAttacks(b, 0)) | bitA | bitB;
+        } else if ((MagicBitboards.bishopAttacks(a, 0) & bitB) != 0) {
+            BETWEEN[a][b] = MagicBitboards.bishopAttacks(a, bitB) & MagicBitboards.bishopAttacks(b, bitA);
+            LINE[a][b] = (MagicBitboards.bishopAttacks(a, 0) & MagicBitboards.bishopAttacks(b, 0)) | bitA | bitB;
+        }
+    }
+
+    private static long stepAttacks(int row, int col, int[][] steps) {
+        long attacks = 0;
+        for (int[] step : steps) {
+            int newRow = row + step[0];
+            int newCol = col + step[1];
+            if (newRow >= 1 && newRow <= 8 && newCol >= 1 && newCol <= 8) {
+                attacks |= 1L << square(newRow, newCol);
+            }
+        }
+        return attacks;
+    }
+}
@@ -2,24 +2,17 @@ package chess.moves;
 
 import chess.*;
 
-import java.util.Collection;
-
 public class KingMovesCalculator extends MovesCalculator {
 
     KingMovesCalculator(ChessBoard board, ChessPosition initialPos, ChessPiece piece) {
         super(board, initialPos, piece);
     }
 
-    public Collection<ChessMove> pieceMoves() {
-        var initialRow = initialPos.getRow();
-        var initialCol = initialPos.getColumn();
+    static void addMoves(ChessBoard board, int square, ChessGame.TeamColor color, long allowed, MoveList moves) {
+        // the 8 surrounding squares are precomputed for every square
+        long attacks = Bitboards.kingAttacks(square);
 
-        // calculate moves for 8 squares, use two loops
-        for (int rowDirection = -1; rowDirection <= 1; rowDirection++) {
-            for (int colDirection = -1; colDirection <= 1; colDirection++) {
-                calculateOneSquare(initialRow, initialCol, rowDirection, colDirection);
-            }
-        }
-        return newMoves;
+        // you can't move onto a piece that's the same color
+        addMovesTo(board, square, attacks & ~board.getPieces(color) & allowed, moves);
     }
 }
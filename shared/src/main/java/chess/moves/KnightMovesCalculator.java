@@ -2,28 +2,17 @@ package chess.moves;
 
 import chess.*;
 
-import java.util.Collection;
-
 public class KnightMovesCalculator extends MovesCalculator {
 
     KnightMovesCalculator(ChessBoard board, ChessPosition myPosition, ChessPiece piece) {
         super(board, myPosition, piece);
     }
 
-    public Collection<ChessMove> pieceMoves() {
-        var initialRow = initialPos.getRow();
-        var initialCol = initialPos.getColumn();
-
-        // calculate moves for 8 squares
-        calculateOneSquare(initialRow, initialCol, 1, -2);
-        calculateOneSquare(initialRow, initialCol, 2, -1);
-        calculateOneSquare(initialRow, initialCol, 2, 1);
-        calculateOneSquare(initialRow, initialCol, 1, 2);
-        calculateOneSquare(initialRow, initialCol, -1, 2);
-        calculateOneSquare(initialRow, initialCol, -2, 1);
-        calculateOneSquare(initialRow, initialCol, -1, -2);
-        calculateOneSquare(initialRow, initialCol, -2, -1);
+    static void addMoves(ChessBoard board, int square, ChessGame.TeamColor color, long allowed, MoveList moves) {
+        // the 8 knight jumps are precomputed for every square
+        long attacks = Bitboards.knightAttacks(square);
 
-        return newMoves;
+        // you can't move onto a piece that's the same color
+        addMovesTo(board, square, attacks & ~board.getPieces(color) & allowed, moves);
     }
 }
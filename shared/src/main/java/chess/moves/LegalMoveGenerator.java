@@ -0,0 +1,223 @@
+package chess.moves;
+
+import chess.*;
+
+import java.util.Collection;
+
+/**
+ * Generates every legal move for one team in a single pass over the board.
+ * <p>
+ * Instead of making each candidate move and testing the king afterward, the checking pieces and pinned
+ * pieces are found up front. Every non-king move is then limited to the squares that deal with the check
+ * (capturing or blocking the checker), and a pinned piece is limited to the line through its king. The
+ * king itself just avoids attacked squares.
+ */
+public final class LegalMoveGenerator {
+
+    private LegalMoveGenerator() {
+    }
+
+    /**
+     * Adds every legal move for a team to a collection
+     *
+     * @param board the board to generate moves on
+     * @param color the team to move
+     * @param moves the collection to add moves to
+     */
+    public static void generate(ChessBoard board, ChessGame.TeamColor color, Collection<ChessMove> moves) {
+        generate(board, color, -1L, moves);
+    }
+
+    /**
+     * Adds the legal moves for a team's pieces standing on a set of squares to a collection
+     *
+     * @param board    the board to generate moves on
+     * @param color    the team to move
+     * @param fromMask bitboard of the squares whose pieces should be moved
+     * @param moves    the collection to add moves to
+     */
+    public static void generate(ChessBoard board, ChessGame.TeamColor color, long fromMask, Collection<ChessMove> moves) {
+        var moveList = new MoveList();
+        generate(board, color, fromMask, moveList);
+        moveList.addTo(moves);
+    }
+
+    /**
+     * Adds every legal move for a team to a reusable list of packed moves (see Move)
+     *
+     * @param board the board to generate moves on
+     * @param color the team to move
+     * @param moves the list to add moves to
+     */
+    public static void generate(ChessBoard board, ChessGame.TeamColor color, MoveList moves) {
+        generate(board, color, -1L, moves);
+    }
+
+    /**
+     * Adds the legal moves for a team's pieces standing on a set of squares to a reusable list of packed moves
+     *
+     * @param board    the board to generate moves on
+     * @param color    the team to move
+     * @param fromMask bitboard of the squares whose pieces should be moved
+     * @param moves    the list to add moves to
+     */
+    public static void generate(ChessBoard board, ChessGame.TeamColor color, long fromMask, MoveList moves) {
+        var enemy = color == ChessGame.TeamColor.WHITE ? ChessGame.TeamColor.BLACK : ChessGame.TeamColor.WHITE;
+        long own = board.getPieces(color);
+        long occupied = board.getOccupied();
+        long king = board.getPieces(color, ChessPiece.PieceType.KING);
+        int kingSquare = board.getKingSquare(color);
+
+        // a board without this team's king has no checks or pins to worry about
+        long checkMask = -1L;
+        long pinned = 0;
+
+        if (kingSquare >= 0) {
+            long checkers = board.attackersTo(kingSquare, enemy, occupied);
+            checkMask = checkMask(kingSquare, checkers);
+            pinned = pinnedPieces(board, kingSquare, color, enemy);
+
+            if ((king & fromMask) != 0) {
+                addKingMoves(board, kingSquare, enemy, own, occupied, moves);
+            }
+        }
+
+        // in double check, only the king can move
+        if (checkMask == 0) {
+            return;
+        }
+
+        long movable = own & ~king & fromMask;
+        for (long pieces = movable; pieces != 0; pieces &= pieces - 1) {
+            int from = Long.numberOfTrailingZeros(pieces);
+            long allowed = checkMask;
+            if ((pinned & (1L << from)) != 0) {
+                allowed &= Bitboards.line(kingSquare, from);
+            }
+            MovesCalculator.calculateMoves(board, from, board.getPiece(from), allowed, moves);
+        }
+    }
+
+    /**
+     * Checks whether a team has at least one legal move, stopping at the first one it finds. King steps
+     * are tried first, then (when in check) the pieces that can capture the checker, and only then the
+     * rest of the team, one piece at a time.
+     *
+     * @param board the board to look at
+     * @param color the team to move
+     * @return true if the team has any legal move
+     */
+    public static boolean hasAnyLegalMove(ChessBoard board, ChessGame.TeamColor color) {
+        var enemy = color == ChessGame.TeamColor.WHITE ? ChessGame.TeamColor.BLACK : ChessGame.TeamColor.WHITE;
+        long own = board.getPieces(color);
+        long occupied = board.getOccupied();
+        int kingSquare = board.getKingSquare(color);
+
+        long candidates = own;
+        long checkMask = -1L;
+        long pinned = 0;
+        var moves = new MoveList(32);
+
+        if (kingSquare >= 0) {
+            if (safeKingSquares(board, kingSquare, enemy, own, occupied, true) != 0) {
+                return true;
+            }
+
+            long checkers = board.attackersTo(kingSquare, enemy, occupied);
+            checkMask = checkMask(kingSquare, checkers);
+            if (checkMask == 0) {
+                return false;
+            }
+            pinned = pinnedPieces(board, kingSquare, color, enemy);
+            candidates &= ~(1L << kingSquare);
+
+            // taking the checker is the most likely way out of check, so try those pieces first
+            if (checkers != 0) {
+                long capturers = board.attackersTo(Long.numberOfTrailingZeros(checkers), color, occupied) & candidates;
+                if (anyPieceMove(board, capturers, kingSquare, checkMask, pinned, moves)) {
+                    return true;
+                }
+                candidates &= ~capturers;
+            }
+        }
+
+        return anyPieceMove(board, candidates, kingSquare, checkMask, pinned, moves);
+    }
+
+    // Generate moves one piece at a time and stop as soon as a piece has any
+    private static boolean anyPieceMove(ChessBoard board, long pieces, int kingSquare, long checkMask, long pinned,
+                                        MoveList moves) {
+        for (; pieces != 0; pieces &= pieces - 1) {
+            int from = Long.numberOfTrailingZeros(pieces);
+            long allowed = checkMask;
+            if ((pinned & (1L << from)) != 0) {
+                allowed &= Bitboards.line(kingSquare, from);
+            }
+            MovesCalculator.calculateMoves(board, from, board.getPiece(from), allowed, moves);
+            if (!moves.isEmpty()) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    // The squares a non-king move has to land on: anywhere when not in check, the checker or the squares
+    // between it and the king in single check, and nowhere in double check
+    private static long checkMask(int kingSquare, long checkers) {
+        if (checkers == 0) {
+            return -1L;
+        }
+        if ((checkers & (checkers - 1)) != 0) {
+            return 0;
+        }
+        return checkers | Bitboards.between(kingSquare, Long.numberOfTrailingZeros(checkers));
+    }
+
+    // A piece is pinned when it's the only piece between its king and an enemy slider on the same line
+    private static long pinnedPieces(ChessBoard board, int kingSquare, ChessGame.TeamColor color,
+                                     ChessGame.TeamColor enemy) {
+        long enemyPieces = board.getPieces(enemy);
+        long enemyQueens = board.getPieces(enemy, ChessPiece.PieceType.QUEEN);
+
+        // enemy sliders that would hit the king if only enemy pieces were on the board
+        long snipers = (Bitboards.rookAttacks(kingSquare, enemyPieces)
+                & (board.getPieces(enemy, ChessPiece.PieceType.ROOK) | enemyQueens))
+                | (Bitboards.bishopAttacks(kingSquare, enemyPieces)
+                & (board.getPieces(enemy, ChessPiece.PieceType.BISHOP) | enemyQueens));
+
+        long pinned = 0;
+        for (; snipers != 0; snipers &= snipers - 1) {
+            long blockers = Bitboards.between(kingSquare, Long.numberOfTrailingZeros(snipers)) & board.getOccupied();
+            if ((blockers & (blockers - 1)) == 0) {
+                pinned |= blockers & board.getPieces(color);
+            }
+        }
+        return pinned;
+    }
+
+    private static void addKingMoves(ChessBoard board, int kingSquare, ChessGame.TeamColor enemy, long own,
+                                     long occupied, MoveList moves) {
+        long safe = safeKingSquares(board, kingSquare, enemy, own, occupied, false);
+        MovesCalculator.addMovesTo(board, kingSquare, safe, moves);
+    }
+
+    // The squares next to the king that it can step to without being attacked (just the first one found
+    // when stopAtFirst is set)
+    private static long safeKingSquares(ChessBoard board, int kingSquare, ChessGame.TeamColor enemy, long own,
+                                        long occupied, boolean stopAtFirst) {
+        // take the king off the board so sliders checking it also cover the squares behind it
+        long occupiedWithoutKing = occupied & ~(1L << kingSquare);
+
+        long safe = 0;
+        for (long targets = Bitboards.kingAttacks(kingSquare) & ~own; targets != 0; targets &= targets - 1) {
+            int to = Long.numberOfTrailingZeros(targets);
+            if (board.attackersTo(to, enemy, occupiedWithoutKing) == 0) {
+                safe |= 1L << to;
+                if (stopAtFirst) {
+                    break;
+                }
+            }
+        }
+        return safe;
+    }
+}
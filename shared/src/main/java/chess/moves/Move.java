@@ -0,0 +1,89 @@
+package chess.moves;
+
+import chess.*;
+
+/**
+ * Packs a move into a single int, so move generation and search don't have to allocate a ChessMove
+ * (and two ChessPositions) for every move they look at.
+ * <p>
+ * Bits 0-5 hold the starting square, bits 6-11 the ending square, bits 12-14 the promotion type
+ * (0 for none, otherwise PieceType.ordinal() + 1), and the bits above that are flags.
+ */
+public final class Move {
+
+    // Never a real move (it starts and ends on the same square)
+    public static final int NONE = 0;
+
+    // Set when the ending square held an enemy piece when the move was generated
+    public static final int CAPTURE = 1 << 15;
+
+    private static final ChessPiece.PieceType[] TYPES = ChessPiece.PieceType.values();
+
+    private Move() {
+    }
+
+    public static int of(int from, int to) {
+        return from | to << 6;
+    }
+
+    public static int of(int from, int to, ChessPiece.PieceType promotion, int flags) {
+        int promotionBits = promotion == null ? 0 : promotion.ordinal() + 1;
+        return from | to << 6 | promotionBits << 12 | flags;
+    }
+
+    public static int from(int move) {
+        return move & 0x3F;
+    }
+
+    public static int to(int move) {
+        return (move >>> 6) & 0x3F;
+    }
+
+    /**
+     * @return the type a pawn is promoted to, or null if the move isn't a promotion
+     */
+    public static ChessPiece.PieceType promotion(int move) {
+        int promotionBits = (move >>> 12) & 0x7;
+        return promotionBits == 0 ? null : TYPES[promotionBits - 1];
+    }
+
+    public static boolean isCapture(int move) {
+        return (move & CAPTURE) != 0;
+    }
+
+    /**
+     * @return the move without its flags, for comparing moves that were generated differently
+     */
+    public static int withoutFlags(int move) {
+        return move & 0x7FFF;
+    }
+
+    /**
+     * Converts a packed move to a ChessMove (using the shared positions)
+     */
+    public static ChessMove toChessMove(int move) {
+        return new ChessMove(ChessPosition.of(from(move)), ChessPosition.of(to(move)), promotion(move));
+    }
+
+    /**
+     * Converts a ChessMove to a packed move with no flags
+     */
+    public static int fromChessMove(ChessMove move) {
+        return of(Bitboards.square(move.getStartPosition()), Bitboards.square(move.getEndPosition()),
+                move.getPromotionPiece(), 0);
+    }
+
+    /**
+     * @return the move in board notation, like "e2e4" or "a7a8q"
+     */
+    public static String toString(int move) {
+        var notation = new StringBuilder()
+                .append((char) ('a' + from(move) % 8)).append(from(move) / 8 + 1)
+                .append((char) ('a' + to(move) % 8)).append(to(move) / 8 + 1);
+        var promotion = promotion(move);
+        if (promotion != null) {
+            notation.append(promotion == ChessPiece.PieceType.KNIGHT ? 'n' : promotion.name().toLowerCase().charAt(0));
+        }
+        return notation.toString();
+    }
+}
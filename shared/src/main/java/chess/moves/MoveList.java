@@ -0,0 +1,65 @@
+package chess.moves;
+
+import chess.ChessMove;
+
+import java.util.Arrays;
+import java.util.Collection;
+
+/**
+ * A growable list of packed moves (see Move) backed by a plain int array. Clearing it keeps the array,
+ * so one list can be reused for every position in a search without allocating.
+ */
+public final class MoveList {
+
+    // No chess position has more than 218 legal moves
+    private static final int DEFAULT_CAPACITY = 256;
+
+    private int[] moves;
+    private int size;
+
+    public MoveList() {
+        this(DEFAULT_CAPACITY);
+    }
+
+    public MoveList(int capacity) {
+        moves = new int[capacity];
+    }
+
+    public void add(int move) {
+        if (size == moves.length) {
+            moves = Arrays.copyOf(moves, size * 2);
+        }
+        moves[size++] = move;
+    }
+
+    public int get(int index) {
+        return moves[index];
+    }
+
+    public void set(int index, int move) {
+        moves[index] = move;
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    public void clear() {
+        size = 0;
+    }
+
+    /**
+     * Converts every move to a ChessMove and adds it to a collection
+     *
+     * @param out the collection to add to
+     */
+    public void addTo(Collection<ChessMove> out) {
+        for (int i = 0; i < size; i++) {
+            out.add(Move.toChessMove(moves[i]));
+        }
+    }
+}
@@ -19,88 +19,53 @@ public abstract class MovesCalculator {
         newMoves = new ArrayList<>();
     }
 
-    // all subclasses must implement pieceMoves
-    public abstract Collection<ChessMove> pieceMoves();
+    // Every subclass fills in its moves through the packed-move path, then they're converted here
+    public Collection<ChessMove> pieceMoves() {
+        var moves = new MoveList();
+        calculateMoves(board, Bitboards.square(initialPos), piece, -1L, moves);
+        moves.addTo(newMoves);
+        return newMoves;
+    }
 
     // Basic calculate moves method called from ChessPiece class
     public static Collection<ChessMove> calculateMoves(ChessBoard board, ChessPosition initialPos, ChessPiece piece) {
-        switch (piece.getPieceType()) {
-            case BISHOP -> {
-                return new BishopMovesCalculator(board, initialPos, piece).pieceMoves();
-            }
-            case KING -> {
-                return new KingMovesCalculator(board, initialPos, piece).pieceMoves();
-            }
-            case KNIGHT -> {
-                return new KnightMovesCalculator(board, initialPos, piece).pieceMoves();
-            }
-            case PAWN -> {
-                return new PawnMovesCalculator(board, initialPos, piece).pieceMoves();
-            }
-            case QUEEN -> {
-                return new QueenMovesCalculator(board, initialPos, piece).pieceMoves();
-            }
-            case ROOK -> {
-                return new RookMovesCalculator(board, initialPos, piece).pieceMoves();
-            }
-        }
-        return null;
-    }
-
-    // Calculate a move in one straight direction (for bishops, queens, and rooks)
-    public void calculateOneDirection(int row, int col, int rowDirection, int colDirection) {
-        boolean blocked = false;
-        boolean sameColor = false;
-
-        for (int i = 1; i <=8; i++) {
-            row += rowDirection;
-            col += colDirection;
-
-            if (!blocked && positionInBounds(row, col)) {
-
-                ChessPosition newPos = new ChessPosition(row, col);
-
-                // set piece as blocked in order to stop further movement
-                if (!checkIfEmpty(newPos)) {
-                    blocked = true;
+        var moves = new MoveList();
+        calculateMoves(board, Bitboards.square(initialPos), piece, -1L, moves);
 
-                    // if the piece blocking is the same color, you can't move onto it
-                    if (board.getPiece(newPos).getTeamColor() == piece.getTeamColor()) {
-                        sameColor = true;
-                    }
-                }
-                // add a piece
-                if (!sameColor) {
-                    newMoves.add(new ChessMove(initialPos, newPos, null));
-                }
-            }
-        }
+        Collection<ChessMove> chessMoves = new ArrayList<>(moves.size());
+        moves.addTo(chessMoves);
+        return chessMoves;
     }
 
-    // Calculate one square move
-    public void calculateOneSquare(int row, int col, int rowDirection, int colDirection) {
-        row += rowDirection;
-        col += colDirection;
-
-        if (positionInBounds(row, col)) {
-
-            ChessPosition newPos = new ChessPosition(row, col);
-
-            // if the piece blocking is the same color, you can't move onto it
-            if (!checkIfEmpty(newPos) && board.getPiece(newPos).getTeamColor() == piece.getTeamColor()) {
-                return;
-            }
-            // add a piece
-            newMoves.add(new ChessMove(initialPos, newPos, null));
+    /**
+     * Low-level version of calculateMoves that doesn't allocate: adds packed moves (see Move) to a
+     * list the caller can reuse. Like pieceMoves, this doesn't check whether the king is left in danger.
+     *
+     * @param board   the board to calculate on
+     * @param square  the square index of the piece
+     * @param piece   the piece to move
+     * @param allowed bitboard of the squares the piece may end on (-1 for anywhere)
+     * @param moves   the list to add moves to
+     */
+    public static void calculateMoves(ChessBoard board, int square, ChessPiece piece, long allowed, MoveList moves) {
+        var color = piece.getTeamColor();
+        switch (piece.getPieceType()) {
+            case BISHOP -> BishopMovesCalculator.addMoves(board, square, color, allowed, moves);
+            case KING -> KingMovesCalculator.addMoves(board, square, color, allowed, moves);
+            case KNIGHT -> KnightMovesCalculator.addMoves(board, square, color, allowed, moves);
+            case PAWN -> PawnMovesCalculator.addMoves(board, square, color, allowed, moves);
+            case QUEEN -> QueenMovesCalculator.addMoves(board, square, color, allowed, moves);
+            case ROOK -> RookMovesCalculator.addMoves(board, square, color, allowed, moves);
         }
     }
 
-    // Check to see if the given row and column are in bounds in the chess board
-    public boolean positionInBounds(int row, int col) {
-        return row >= 1 && row <= 8 && col >= 1 && col <= 8;
-    }
-
-    public boolean checkIfEmpty(ChessPosition newPos) {
-        return board.getPiece(newPos) == null;
+    // Add a move to every square in a bitboard, flagging the ones that capture
+    static void addMovesTo(ChessBoard board, int from, long targets, MoveList moves) {
+        long occupied = board.getOccupied();
+        for (; targets != 0; targets &= targets - 1) {
+            int to = Long.numberOfTrailingZeros(targets);
+            int flags = (occupied & (1L << to)) != 0 ? Move.CAPTURE : 0;
+            moves.add(Move.of(from, to) | flags);
+        }
     }
-}
\ No newline at end of file
+}
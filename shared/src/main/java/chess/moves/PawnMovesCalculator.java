@@ -2,114 +2,53 @@ package chess.moves;
 
 import chess.*;
 
-import java.util.Collection;
-
 public class PawnMovesCalculator extends MovesCalculator {
 
-    final ChessGame.TeamColor color;
-    final ChessGame.TeamColor white = ChessGame.TeamColor.WHITE;
-    final ChessGame.TeamColor black = ChessGame.TeamColor.BLACK;
+    private static final ChessPiece.PieceType[] PROMOTION_TYPES = {
+            ChessPiece.PieceType.QUEEN, ChessPiece.PieceType.ROOK, ChessPiece.PieceType.BISHOP, ChessPiece.PieceType.KNIGHT
+    };
 
     PawnMovesCalculator(ChessBoard board, ChessPosition myPosition, ChessPiece piece) {
         super(board, myPosition, piece);
-        this.color = piece.getTeamColor();
     }
 
-    public Collection<ChessMove> pieceMoves() {
-        var initialRow = initialPos.getRow();
-        var initialCol = initialPos.getColumn();
-
-        switch (color) {
-            case WHITE -> {
-                // move pawn one forward
-                calculateOneSquare(initialRow, initialCol, 1, 0);
+    static void addMoves(ChessBoard board, int square, ChessGame.TeamColor color, long allowed, MoveList moves) {
+        boolean white = color == ChessGame.TeamColor.WHITE;
+        int row = Bitboards.row(square);
 
-                // calculate possible diagonal moves
-                calculateOneSquare(initialRow, initialCol, 1, -1);
-                calculateOneSquare(initialRow, initialCol, 1, 1);
+        // a pawn standing on the far row has nowhere to go
+        if (row == (white ? 8 : 1)) {
+            return;
+        }
 
-            }
-            case BLACK -> {
-                // move pawn one forward
-                calculateOneSquare(initialRow, initialCol, -1, 0);
+        // pawns only move diagonally when capturing
+        var enemy = white ? ChessGame.TeamColor.BLACK : ChessGame.TeamColor.WHITE;
+        long captures = Bitboards.pawnAttacks(color, square) & board.getPieces(enemy) & allowed;
 
-                // calculate possible diagonal moves
-                calculateOneSquare(initialRow, initialCol, -1, -1);
-                calculateOneSquare(initialRow, initialCol, -1, 1);
-            }
+        // move pawn one forward if it's empty, and from the start move two spaces if there's not a piece there
+        long empty = ~board.getOccupied();
+        int forward = white ? 8 : -8;
+        long pushes = (1L << (square + forward)) & empty;
+        if (pushes != 0 && row == (white ? 2 : 7)) {
+            pushes |= (1L << (square + 2 * forward)) & empty;
+        }
+        pushes &= allowed;
+
+        // if the pawn reaches the end of the board, promote
+        if (row == (white ? 7 : 2)) {
+            addPromotionMoves(square, captures, Move.CAPTURE, moves);
+            addPromotionMoves(square, pushes, 0, moves);
+        } else {
+            addMovesTo(board, square, captures | pushes, moves);
         }
-
-        return newMoves;
     }
 
-    public void calculateOneSquare(int row, int col, int rowDirection, int colDirection) {
-        int initialRow = row;
-        row += rowDirection;
-        col += colDirection;
-
-        if (positionInBounds(row, col)) {
-
-            ChessPosition newPos = new ChessPosition(row, col);
-
-            // if you're looking to move diagonally and there's no piece there, simply return
-            if (colDirection != 0 && checkIfEmpty(newPos)) {
-                return;
-            }
-
-            // if you're looking to move straight forward and there's a piece there, simply return
-            if (colDirection == 0 && !checkIfEmpty(newPos)) {
-                return;
-            }
-
-            // if there's a piece there that's the same color, simply return
-            if (!checkIfEmpty(newPos) && board.getPiece(newPos).getTeamColor() == color) {
-                return;
-            }
-
-            // if piece is WHITE and at end of board, promote
-            if (color == white && row == 8) {
-                addPromotionMoves(newPos);
-                return;
-            }
-
-            // if piece is BLACK and at end of board, promote
-            else if (color == black && row == 1) {
-                addPromotionMoves(newPos);
-                return;
-            }
-
-            // if you are at the start, move two spaces if there's not a piece there.
-            if (color == white && initialRow == 2) {
-                newMoves.add(new ChessMove(initialPos, newPos, null));
-
-                // check second space
-                ChessPosition secondMove = new ChessPosition(row + 1, col);
-                if (checkIfEmpty(secondMove)) {
-                    newMoves.add(new ChessMove(initialPos, secondMove, null));
-                }
-            }
-            else if (color == black && initialRow == 7) {
-                newMoves.add(new ChessMove(initialPos, newPos, null));
-
-                // check second space
-                ChessPosition secondMove = new ChessPosition(row - 1, col);
-                if (checkIfEmpty(secondMove)) {
-                    newMoves.add(new ChessMove(initialPos, secondMove, null));
-                }
-            }
-
-            // if all else fails, simply add a move
-            else {
-                newMoves.add(new ChessMove(initialPos, newPos, null));
+    private static void addPromotionMoves(int square, long targets, int flags, MoveList moves) {
+        for (; targets != 0; targets &= targets - 1) {
+            int to = Long.numberOfTrailingZeros(targets);
+            for (var type : PROMOTION_TYPES) {
+                moves.add(Move.of(square, to, type, flags));
             }
         }
     }
-
-    public void addPromotionMoves(ChessPosition newPos) {
-        newMoves.add(new ChessMove(initialPos, newPos, ChessPiece.PieceType.ROOK));
-        newMoves.add(new ChessMove(initialPos, newPos, ChessPiece.PieceType.KNIGHT));
-        newMoves.add(new ChessMove(initialPos, newPos, ChessPiece.PieceType.BISHOP));
-        newMoves.add(new ChessMove(initialPos, newPos, ChessPiece.PieceType.QUEEN));
-    }
 }
-
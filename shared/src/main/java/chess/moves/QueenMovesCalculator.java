@@ -2,24 +2,17 @@ package chess.moves;
 
 import chess.*;
 
-import java.util.Collection;
-
 public class QueenMovesCalculator extends MovesCalculator {
 
     QueenMovesCalculator(ChessBoard board, ChessPosition myPosition, ChessPiece piece) {
         super(board, myPosition, piece);
     }
 
-    public Collection<ChessMove> pieceMoves() {
-        var initialRow = initialPos.getRow();
-        var initialCol = initialPos.getColumn();
+    static void addMoves(ChessBoard board, int square, ChessGame.TeamColor color, long allowed, MoveList moves) {
+        // look up every straight and diagonal square the queen attacks in the magic bitboard tables
+        long attacks = MagicBitboards.queenAttacks(square, board.getOccupied());
 
-        // calculate moves in 8 directions, use two loops
-        for (int rowDirection = -1; rowDirection <= 1; rowDirection++) {
-            for (int colDirection = -1; colDirection <= 1; colDirection++) {
-                calculateOneDirection(initialRow, initialCol, rowDirection, colDirection);
-            }
-        }
-        return newMoves;
+        // you can't move onto a piece that's the same color
+        addMovesTo(board, square, attacks & ~board.getPieces(color) & allowed, moves);
     }
 }
@@ -0,0 +1,205 @@
+package chess.moves;
+
+import chess.ChessBoard;
+import chess.ChessGame;
+import chess.ChessPiece;
+
+/**
+ * Static exchange evaluation: works out what a capture wins or loses once both sides have taken
+ * back and forth on its square, without making any moves on the board.
+ * <p>
+ * Each side always recaptures with its least valuable attacker, and either side may stop taking
+ * when that's better for them. Sliders lined up behind a piece that captures (x-rays) join in once
+ * it's gone. Pins aren't considered, and a pawn that recaptures on the last rank is valued as a pawn.
+ */
+public final class StaticExchange {
+
+    // Exchange values by PieceType ordinal (king, queen, bishop, knight, rook, pawn)
+    private static final int[] VALUES = {20_000, 900, 330, 320, 500, 100};
+
+    // Least valuable first, the order each side brings in its attackers
+    private static final ChessPiece.PieceType[] CAPTURE_ORDER = {
+            ChessPiece.PieceType.PAWN, ChessPiece.PieceType.KNIGHT, ChessPiece.PieceType.BISHOP,
+            ChessPiece.PieceType.ROOK, ChessPiece.PieceType.QUEEN, ChessPiece.PieceType.KING
+    };
+
+    /**
+     * No exchange can be longer than every piece on the board, so a gain buffer this long always fits
+     */
+    public static final int MAX_EXCHANGE = 32;
+
+    private StaticExchange() {
+    }
+
+    /**
+     * Finds the material the side making a move comes out ahead by after the exchange on its square.
+     * This allocates its own gain buffer; code that calls it a lot should pass one in, or use
+     * seeGreaterOrEqual (which is what the search does) when it only needs a comparison.
+     *
+     * @param board the board the move would be made on
+     * @param move  a packed move; it doesn't have to be a capture
+     * @return the material won (negative if lost), in centipawns
+     */
+    public static int see(ChessBoard board, int move) {
+        return see(board, move, new int[MAX_EXCHANGE]);
+    }
+
+    /**
+     * Same as see(board, move), but works in a buffer the caller keeps, so nothing is allocated
+     *
+     * @param gain scratch space of at least MAX_EXCHANGE ints (overwritten)
+     */
+    public static int see(ChessBoard board, int move, int[] gain) {
+        int from = Move.from(move);
+        int to = Move.to(move);
+        var color = board.getPiece(from).getTeamColor();
+
+        gain[0] = firstGain(board, move);
+        int onSquare = movedValue(board, move);
+
+        long occupied = board.getOccupied() & ~(1L << from);
+        long attackers = allAttackers(board, to, occupied);
+        int depth = 0;
+        while (true) {
+            color = opponent(color);
+            var type = leastValuableAttacker(board, attackers, color);
+            if (type == null || kingWouldBeCaptured(board, type, attackers, color)) {
+                break;
+            }
+
+            // the other side takes, and gives up whatever was on the square
+            depth++;
+            gain[depth] = onSquare - gain[depth - 1];
+            onSquare = VALUES[type.ordinal()];
+
+            occupied &= ~Long.lowestOneBit(attackers & board.getPieces(color, type));
+            attackers = revealAttackers(board, to, type, attackers, occupied);
+        }
+
+        // unwind: each side only takes if it comes out ahead of stopping
+        while (depth > 0) {
+            gain[depth - 1] = -Math.max(-gain[depth - 1], gain[depth]);
+            depth--;
+        }
+        return gain[0];
+    }
+
+    /**
+     * Determines if a move wins at least some amount of material once the exchange on its square
+     * is over. This gives up as soon as the answer is known, so it's cheaper than comparing see
+     * against the threshold.
+     *
+     * @param board     the board the move would be made on
+     * @param move      a packed move; it doesn't have to be a capture
+     * @param threshold the least material the move has to win, in centipawns
+     * @return true if see(board, move) >= threshold
+     */
+    public static boolean seeGreaterOrEqual(ChessBoard board, int move, int threshold) {
+        int from = Move.from(move);
+        int to = Move.to(move);
+        var color = board.getPiece(from).getTeamColor();
+
+        // even if nothing takes back, the capture doesn't win enough
+        int balance = firstGain(board, move) - threshold;
+        if (balance < 0) {
+            return false;
+        }
+
+        // even losing the moved piece for nothing still wins enough
+        balance = movedValue(board, move) - balance;
+        if (balance <= 0) {
+            return true;
+        }
+
+        long occupied = board.getOccupied() & ~(1L << from);
+        long attackers = allAttackers(board, to, occupied);
+        boolean result = true;
+        while (true) {
+            color = opponent(color);
+            var type = leastValuableAttacker(board, attackers, color);
+            if (type == null) {
+                break;
+            }
+            if (type == ChessPiece.PieceType.KING) {
+                // the king can only take if nothing takes it back
+                return kingWouldBeCaptured(board, type, attackers, color) ? result : !result;
+            }
+
+            // result is now whose favour the exchange ends in if this capture is the last one. If the
+            // taker stays ahead even after losing this attacker, the other side can't win it back
+            result = !result;
+            balance = VALUES[type.ordinal()] - balance;
+            if (balance < (result ? 1 : 0)) {
+                break;
+            }
+
+            occupied &= ~Long.lowestOneBit(attackers & board.getPieces(color, type));
+            attackers = revealAttackers(board, to, type, attackers, occupied);
+        }
+        return result;
+    }
+
+    // What the first capture takes, counting a promotion as gaining the difference from a pawn
+    private static int firstGain(ChessBoard board, int move) {
+        var captured = board.getPiece(Move.to(move));
+        int gain = captured == null ? 0 : VALUES[captured.getPieceType().ordinal()];
+        var promotion = Move.promotion(move);
+        if (promotion != null) {
+            gain += VALUES[promotion.ordinal()] - VALUES[ChessPiece.PieceType.PAWN.ordinal()];
+        }
+        return gain;
+    }
+
+    // What the piece standing on the square after the move is worth
+    private static int movedValue(ChessBoard board, int move) {
+        var promotion = Move.promotion(move);
+        var type = promotion != null ? promotion : board.getPiece(Move.from(move)).getPieceType();
+        return VALUES[type.ordinal()];
+    }
+
+    private static long allAttackers(ChessBoard board, int square, long occupied) {
+        return (board.attackersTo(square, ChessGame.TeamColor.WHITE, occupied)
+                | board.attackersTo(square, ChessGame.TeamColor.BLACK, occupied)) & occupied;
+    }
+
+    private static ChessPiece.PieceType leastValuableAttacker(ChessBoard board, long attackers, ChessGame.TeamColor color) {
+        for (var type : CAPTURE_ORDER) {
+            if ((attackers & board.getPieces(color, type)) != 0) {
+                return type;
+            }
+        }
+        return null;
+    }
+
+    // A king can't recapture into a square the other side still attacks
+    private static boolean kingWouldBeCaptured(ChessBoard board, ChessPiece.PieceType type, long attackers,
+                                               ChessGame.TeamColor color) {
+        return type == ChessPiece.PieceType.KING && (attackers & board.getPieces(opponent(color))) != 0;
+    }
+
+    // Drops pieces that have already taken, and adds sliders that were behind the piece that just moved
+    private static long revealAttackers(ChessBoard board, int square, ChessPiece.PieceType moved, long attackers,
+                                        long occupied) {
+        if (moved == ChessPiece.PieceType.KNIGHT || moved == ChessPiece.PieceType.KING) {
+            return attackers & occupied;
+        }
+
+        long queens = board.getPieces(ChessGame.TeamColor.WHITE, ChessPiece.PieceType.QUEEN)
+                | board.getPieces(ChessGame.TeamColor.BLACK, ChessPiece.PieceType.QUEEN);
+        if (moved != ChessPiece.PieceType.ROOK) {
+            long bishops = board.getPieces(ChessGame.TeamColor.WHITE, ChessPiece.PieceType.BISHOP)
+                    | board.getPieces(ChessGame.TeamColor.BLACK, ChessPiece.PieceType.BISHOP);
+            attackers |= Bitboards.bishopAttacks(square, occupied) & (bishops | queens);
+        }
+        if (moved == ChessPiece.PieceType.ROOK || moved == ChessPiece.PieceType.QUEEN) {
+            long rooks = board.getPieces(ChessGame.TeamColor.WHITE, ChessPiece.PieceType.ROOK)
+                    | board.getPieces(ChessGame.TeamColor.BLACK, ChessPiece.PieceType.ROOK);
+            attackers |= Bitboards.rookAttacks(square, occupied) & (rooks | queens);
+        }
+        return attackers & occupied;
+    }
+
+    private static ChessGame.TeamColor opponent(ChessGame.TeamColor color) {
+        return color == ChessGame.TeamColor.WHITE ? ChessGame.TeamColor.BLACK : ChessGame.TeamColor.WHITE;
+    }
+}
@@ -0,0 +1,174 @@
+package chess.perft;
+
+import chess.ChessBoard;
+import chess.ChessGame;
+import chess.moves.LegalMoveGenerator;
+import chess.moves.Move;
+import chess.moves.MoveList;
+
+import java.io.Serial;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+
+/**
+ * Counts the leaf nodes of the legal move tree to a fixed depth ("perft"). The counts for well known
+ * positions are published, so this checks the move generator, and timing it gives a throughput benchmark.
+ * <p>
+ * Moves are made and taken back on the board in place, with one reusable MoveList per ply. The parallel
+ * mode gives each root move its own copy of the board and counts them on a ForkJoinPool.
+ */
+public final class Perft {
+
+    private Perft() {
+    }
+
+    /**
+     * Counts the positions reachable in exactly depth moves
+     *
+     * @param board the board to start from (left unchanged afterward)
+     * @param color the team to move first
+     * @param depth how many moves deep to count
+     * @return the number of leaf nodes
+     */
+    public static long count(ChessBoard board, ChessGame.TeamColor color, int depth) {
+        if (depth == 0) {
+            return 1;
+        }
+        return count(board, color, depth, newMoveLists(depth));
+    }
+
+    /**
+     * Counts the leaf nodes under each root move separately, one at a time
+     *
+     * @param board the board to start from (left unchanged afterward)
+     * @param color the team to move first
+     * @param depth how many moves deep to count (at least 1)
+     * @return the count for each root move, in board notation (like "e2e4"), in generation order
+     */
+    public static Map<String, Long> divide(ChessBoard board, ChessGame.TeamColor color, int depth) {
+        var rootMoves = new MoveList();
+        LegalMoveGenerator.generate(board, color, rootMoves);
+
+        var lists = newMoveLists(depth);
+        Map<String, Long> counts = new LinkedHashMap<>();
+        for (int i = 0; i < rootMoves.size(); i++) {
+            int move = rootMoves.get(i);
+            makeMove(board, move);
+            counts.put(Move.toString(move), depth == 1 ? 1 : count(board, opponent(color), depth - 1, lists));
+            board.unmakeMove();
+        }
+        return counts;
+    }
+
+    /**
+     * Counts the leaf nodes under each root move separately, splitting the root moves across a pool
+     *
+     * @param board the board to start from (not changed; every root move works on its own copy)
+     * @param color the team to move first
+     * @param depth how many moves deep to count (at least 1)
+     * @param pool  the pool to count on
+     * @return the count for each root move, in board notation (like "e2e4"), in generation order
+     */
+    public static Map<String, Long> parallelDivide(ChessBoard board, ChessGame.TeamColor color, int depth,
+                                                   ForkJoinPool pool) {
+        var rootMoves = new MoveList();
+        LegalMoveGenerator.generate(board, color, rootMoves);
+
+        List<RootMoveTask> tasks = new ArrayList<>(rootMoves.size());
+        for (int i = 0; i < rootMoves.size(); i++) {
+            tasks.add(new RootMoveTask(board.cloneBoard(), color, rootMoves.get(i), depth));
+        }
+        tasks.forEach(pool::execute);
+
+        Map<String, Long> counts = new LinkedHashMap<>();
+        for (var task : tasks) {
+            counts.put(Move.toString(task.move), task.join());
+        }
+        return counts;
+    }
+
+    /**
+     * Runs perft and times it
+     *
+     * @param board    the board to start from (left unchanged afterward)
+     * @param color    the team to move first
+     * @param depth    how many moves deep to count (at least 1)
+     * @param parallel whether to split the root moves across the common ForkJoinPool
+     * @return the divide report, total node count, and time taken
+     */
+    public static PerftResult run(ChessBoard board, ChessGame.TeamColor color, int depth, boolean parallel) {
+        long start = System.nanoTime();
+        var counts = parallel ? parallelDivide(board, color, depth, ForkJoinPool.commonPool())
+                : divide(board, color, depth);
+        long elapsed = System.nanoTime() - start;
+
+        long nodes = counts.values().stream().mapToLong(Long::longValue).sum();
+        return new PerftResult(counts, nodes, elapsed);
+    }
+
+    private static long count(ChessBoard board, ChessGame.TeamColor color, int depth, MoveList[] lists) {
+        var moves = lists[depth - 1];
+        moves.clear();
+        LegalMoveGenerator.generate(board, color, moves);
+
+        // every legal move at the last ply is a leaf, so there's no need to make them
+        if (depth == 1) {
+            return moves.size();
+        }
+
+        long nodes = 0;
+        var other = opponent(color);
+        for (int i = 0; i < moves.size(); i++) {
+            makeMove(board, moves.get(i));
+            nodes += count(board, other, depth - 1, lists);
+            board.unmakeMove();
+        }
+        return nodes;
+    }
+
+    private static void makeMove(ChessBoard board, int move) {
+        board.makeMove(Move.from(move), Move.to(move), Move.promotion(move));
+    }
+
+    private static MoveList[] newMoveLists(int depth) {
+        var lists = new MoveList[depth];
+        for (int i = 0; i < depth; i++) {
+            lists[i] = new MoveList();
+        }
+        return lists;
+    }
+
+    private static ChessGame.TeamColor opponent(ChessGame.TeamColor color) {
+        return color == ChessGame.TeamColor.WHITE ? ChessGame.TeamColor.BLACK : ChessGame.TeamColor.WHITE;
+    }
+
+    // Counts everything under one root move on its own copy of the board
+    private static class RootMoveTask extends RecursiveTask<Long> {
+
+        @Serial
+        private static final long serialVersionUID = 1L;
+
+        // tasks are never serialized; the board is only here for the task's run in the pool
+        private final transient ChessBoard board;
+        private final ChessGame.TeamColor color;
+        private final int move;
+        private final int depth;
+
+        RootMoveTask(ChessBoard board, ChessGame.TeamColor color, int move, int depth) {
+            this.board = board;
+            this.color = color;
+            this.move = move;
+            this.depth = depth;
+        }
+
+        @Override
+        protected Long compute() {
+            makeMove(board, move);
+            return depth == 1 ? 1 : Perft.count(board, opponent(color), depth - 1);
+        }
+    }
+}
@@ -0,0 +1,31 @@
+package chess.perft;
+
+import java.util.Map;
+
+/**
+ * The outcome of a timed perft run
+ *
+ * @param divide       leaf node count under each root move, in board notation
+ * @param nodes        total leaf node count
+ * @param elapsedNanos how long the run took
+ */
+public record PerftResult(Map<String, Long> divide, long nodes, long elapsedNanos) {
+
+    public long nodesPerSecond() {
+        // in floating point, since nodes * 1e9 overflows a long from about 9.2 billion nodes (depth 7)
+        return elapsedNanos == 0 ? 0 : (long) (nodes / (elapsedNanos / 1e9));
+    }
+
+    /**
+     * @return one "move: count" line per root move, followed by the totals
+     */
+    public String report() {
+        var report = new StringBuilder();
+        divide.forEach((move, count) -> report.append(move).append(": ").append(count).append('\n'));
+        report.append('\n')
+                .append("Nodes: ").append(nodes).append('\n')
+                .append("Time: ").append(elapsedNanos / 1_000_000).append(" ms\n")
+                .append("Nodes/second: ").append(nodesPerSecond()).append('\n');
+        return report.toString();
+    }
+}
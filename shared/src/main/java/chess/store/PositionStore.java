@@ -0,0 +1,373 @@
+package chess.store;
+
+import chess.ChessBoard;
+import chess.ChessGame;
+import chess.PackedGame;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * An append-only store of positions kept off the Java heap, for analysis jobs that need tens of millions
+ * of them (opening statistics, deduplication, puzzle mining) without giving the garbage collector tens of
+ * millions of objects to trace.
+ * <p>
+ * Each position is a fixed-width record of RECORD_BYTES: its Zobrist key (ChessGame.positionKey), the
+ * board packed one nibble per square (see PackedGame), the packed turn and halfmove clock, and how many
+ * times it's been added. Records live in direct buffers (or in a memory-mapped file) of CHUNK_RECORDS
+ * each, so the store grows a chunk at a time and never copies what's already there. Adding a position
+ * that's already stored just bumps its count; 64-bit keys are taken to be unique.
+ * <p>
+ * Records are found by key through an open-addressing hash index of two primitive arrays (keys, and
+ * record numbers + 1 so 0 can mean an empty slot), which is two objects to the GC no matter how big it
+ * gets. A store backed by a file keeps the record count in a small header, so reopening it maps the
+ * records straight back in; only the index is rebuilt, with one pass over the keys.
+ */
+public final class PositionStore implements AutoCloseable {
+
+    public static final int RECORD_BYTES = 48;
+    public static final int CHUNK_RECORDS = 1 << 16;
+
+    private static final int KEY_OFFSET = 0;
+    private static final int SQUARES_OFFSET = 8;
+    private static final int STATE_OFFSET = 40;
+    private static final int COUNT_OFFSET = 44;
+
+    private static final int CHUNK_BYTES = CHUNK_RECORDS * RECORD_BYTES;
+    private static final int CHUNK_SHIFT = 16;
+
+    // File header: a magic number, a format version, then the record count
+    private static final int HEADER_BYTES = 64;
+    private static final int MAGIC = 0x43485053;
+    private static final int VERSION = 1;
+    private static final int SIZE_OFFSET = 8;
+
+    private final FileChannel channel;
+    private final MappedByteBuffer header;
+    // Set to null (along with the index) on close, so nothing can use the buffers afterward
+    private List<ByteBuffer> chunks = new ArrayList<>();
+    private int size;
+
+    private long[] indexKeys = new long[1024];
+    private int[] indexRecords = new int[1024];
+
+    private PositionStore(FileChannel channel, MappedByteBuffer header) {
+        this.channel = channel;
+        this.header = header;
+    }
+
+    /**
+     * Creates an empty store in direct memory. Closing it lets go of the buffers, but the JVM only gives
+     * direct memory back once the garbage collector gets to them; freeing it on the spot would take an
+     * FFM Arena, which is still a preview API on the Java 21 we build for.
+     */
+    public static PositionStore inMemory() {
+        return new PositionStore(null, null);
+    }
+
+    /**
+     * Opens a store backed by a memory-mapped file, creating the file if it doesn't exist. Changes are
+     * written to the file by the OS; close (or flush) forces them out.
+     *
+     * @param file the file to open or create
+     * @return the store, with any records already in the file
+     * @throws IOException if the file can't be opened, or isn't a position store
+     */
+    public static PositionStore open(Path file) throws IOException {
+        var channel = FileChannel.open(file, StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE);
+        try {
+            boolean created = channel.size() == 0;
+            var header = channel.map(FileChannel.MapMode.READ_WRITE, 0, HEADER_BYTES);
+            header.order(ByteOrder.LITTLE_ENDIAN);
+            if (created) {
+                header.putInt(0, MAGIC).putInt(4, VERSION).putInt(SIZE_OFFSET, 0);
+            } else if (header.getInt(0) != MAGIC || header.getInt(4) != VERSION) {
+                throw new IOException(file + " isn't a position store");
+            }
+
+            var store = new PositionStore(channel, header);
+            store.reload(header.getInt(SIZE_OFFSET));
+            return store;
+        } catch (IOException | RuntimeException e) {
+            channel.close();
+            throw e;
+        }
+    }
+
+    /**
+     * Adds a game's current position, or counts it again if it's already stored
+     *
+     * @param game the game whose position to add (left unchanged)
+     * @return the position's record number
+     */
+    public int add(ChessGame game) {
+        long key = game.positionKey();
+        int record = find(key);
+        if (record >= 0) {
+            var chunk = chunk(record);
+            int offset = offset(record) + COUNT_OFFSET;
+            chunk.putInt(offset, chunk.getInt(offset) + 1);
+            return record;
+        }
+
+        record = size;
+        var chunk = chunk(record);
+        int offset = offset(record);
+        chunk.putLong(offset + KEY_OFFSET, key);
+        for (int word = 0; word < 4; word++) {
+            chunk.putLong(offset + SQUARES_OFFSET + word * 8, PackedGame.packSquares(game.getBoard(), word));
+        }
+        chunk.putInt(offset + STATE_OFFSET, PackedGame.packState(game));
+        chunk.putInt(offset + COUNT_OFFSET, 1);
+
+        size++;
+        if (header != null) {
+            header.putInt(SIZE_OFFSET, size);
+        }
+        index(key, record);
+        return record;
+    }
+
+    /**
+     * Looks up a position by its key
+     *
+     * @param key the position's Zobrist key (ChessGame.positionKey)
+     * @return the record number, or -1 if the position isn't stored
+     */
+    public int find(long key) {
+        ensureOpen();
+        int mask = indexKeys.length - 1;
+        for (int slot = slot(key, mask); indexRecords[slot] != 0; slot = (slot + 1) & mask) {
+            if (indexKeys[slot] == key) {
+                return indexRecords[slot] - 1;
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * @return the number of positions stored
+     */
+    public int size() {
+        return size;
+    }
+
+    /**
+     * @return the Zobrist key of a record
+     */
+    public long key(int record) {
+        return chunk(checked(record)).getLong(offset(record) + KEY_OFFSET);
+    }
+
+    /**
+     * @return how many times a record's position has been added
+     */
+    public int count(int record) {
+        return chunk(checked(record)).getInt(offset(record) + COUNT_OFFSET);
+    }
+
+    /**
+     * @return the team to move in a record's position, or null if the game was over
+     */
+    public ChessGame.TeamColor teamTurn(int record) {
+        return PackedGame.getTeamTurn(chunk(checked(record)).getInt(offset(record) + STATE_OFFSET));
+    }
+
+    /**
+     * Writes a record's pieces onto a board, replacing whatever was there, so one board can be reused
+     * for every record
+     *
+     * @param record the record number
+     * @param board  the board to fill
+     */
+    public void decode(int record, ChessBoard board) {
+        var chunk = chunk(checked(record));
+        int offset = offset(record) + SQUARES_OFFSET;
+        board.clear();
+        for (int word = 0; word < 4; word++) {
+            PackedGame.unpackSquares(chunk.getLong(offset + word * 8), word, board);
+        }
+    }
+
+    /**
+     * @return a cursor over every record in the order they were added
+     */
+    public Cursor cursor() {
+        return new Cursor();
+    }
+
+    /**
+     * Forces changes out to the file (does nothing for a store in memory)
+     */
+    public void flush() {
+        ensureOpen();
+        if (header == null) {
+            return;
+        }
+        header.force();
+        for (var chunk : chunks) {
+            ((MappedByteBuffer) chunk).force();
+        }
+    }
+
+    /**
+     * Closes the store (flushing it first if it's backed by a file). Using it afterward throws
+     * IllegalStateException; closing it again does nothing.
+     */
+    @Override
+    public void close() throws IOException {
+        if (chunks == null) {
+            return;
+        }
+        try {
+            if (channel != null) {
+                flush();
+                channel.close();
+            }
+        } finally {
+            chunks = null;
+            indexKeys = null;
+            indexRecords = null;
+        }
+    }
+
+    /**
+     * Walks the records, decoding each into the same board. The board is only valid until the next call
+     * to next, so copy it (cloneBoard) to keep one.
+     */
+    public final class Cursor {
+
+        private final ChessBoard board = new ChessBoard();
+        private int record = -1;
+
+        /**
+         * Moves on to the next record, decoding it into board()
+         *
+         * @return false if there are no more records
+         */
+        public boolean next() {
+            if (record + 1 >= size) {
+                return false;
+            }
+            record++;
+            decode(record, board);
+            return true;
+        }
+
+        public int record() {
+            return record;
+        }
+
+        public ChessBoard board() {
+            return board;
+        }
+
+        public long key() {
+            return PositionStore.this.key(record);
+        }
+
+        public int count() {
+            return PositionStore.this.count(record);
+        }
+
+        public ChessGame.TeamColor teamTurn() {
+            return PositionStore.this.teamTurn(record);
+        }
+    }
+
+    // Maps the records already in the file and indexes them
+    private void reload(int records) {
+        size = records;
+        for (int record = 0; record < records; record++) {
+            index(chunk(record).getLong(offset(record) + KEY_OFFSET), record);
+        }
+    }
+
+    private void ensureOpen() {
+        if (chunks == null) {
+            throw new IllegalStateException("The position store is closed");
+        }
+    }
+
+    private int checked(int record) {
+        if (record < 0 || record >= size) {
+            throw new IndexOutOfBoundsException("Record " + record + " of " + size);
+        }
+        return record;
+    }
+
+    // The chunk holding a record, adding chunks as the store grows
+    private ByteBuffer chunk(int record) {
+        ensureOpen();
+        int chunkIndex = record >>> CHUNK_SHIFT;
+        while (chunks.size() <= chunkIndex) {
+            chunks.add(newChunk(chunks.size()));
+        }
+        return chunks.get(chunkIndex);
+    }
+
+    private ByteBuffer newChunk(int chunkIndex) {
+        if (channel == null) {
+            return ByteBuffer.allocateDirect(CHUNK_BYTES).order(ByteOrder.LITTLE_ENDIAN);
+        }
+        try {
+            long position = HEADER_BYTES + (long) chunkIndex * CHUNK_BYTES;
+            return channel.map(FileChannel.MapMode.READ_WRITE, position, CHUNK_BYTES).order(ByteOrder.LITTLE_ENDIAN);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private static int offset(int record) {
+        return (record & (CHUNK_RECORDS - 1)) * RECORD_BYTES;
+    }
+
+    private void index(long key, int record) {
+        // keep the index at most half full, so probe runs stay short
+        if ((size + 1) * 2L > indexKeys.length) {
+            growIndex();
+        }
+        int slot = freeSlot(key, indexRecords);
+        indexKeys[slot] = key;
+        indexRecords[slot] = record + 1;
+    }
+
+    private void growIndex() {
+        long[] oldKeys = indexKeys;
+        int[] oldRecords = indexRecords;
+        indexKeys = new long[oldKeys.length * 2];
+        indexRecords = new int[oldRecords.length * 2];
+
+        for (int i = 0; i < oldKeys.length; i++) {
+            if (oldRecords[i] == 0) {
+                continue;
+            }
+            int slot = freeSlot(oldKeys[i], indexRecords);
+            indexKeys[slot] = oldKeys[i];
+            indexRecords[slot] = oldRecords[i];
+        }
+    }
+
+    // The first empty slot at or after the key's own slot
+    private static int freeSlot(long key, int[] records) {
+        int mask = records.length - 1;
+        int slot = slot(key, mask);
+        while (records[slot] != 0) {
+            slot = (slot + 1) & mask;
+        }
+        return slot;
+    }
+
+    // Zobrist keys are already random, so the high bits make a fine slot
+    private static int slot(long key, int mask) {
+        return (int) (key >>> 32) & mask;
+    }
+}
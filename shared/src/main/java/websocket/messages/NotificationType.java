@@ -9,5 +9,6 @@ public enum NotificationType {
     RESIGN,
     CHECK,
     CHECKMATE,
-    STALEMATE
+    STALEMATE,
+    DRAW
 }
@@ -0,0 +1,54 @@
+package chess;
+
+import com.google.gson.Gson;
+import com.google.gson.GsonBuilder;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+class ChessBoardAdapterTests {
+
+    @Test
+    void roundTripGame() throws InvalidMoveException {
+        // make a move so the board isn't the default one
+        var game = new ChessGame();
+        game.makeMove(new ChessMove(new ChessPosition(2, 5), new ChessPosition(4, 5), null));
+
+        var gson = new GsonBuilder().serializeNulls().create();
+        var json = gson.toJson(game);
+        var decodedGame = gson.fromJson(json, ChessGame.class);
+
+        Assertions.assertEquals(game, decodedGame);
+        Assertions.assertEquals(json, gson.toJson(decodedGame));
+    }
+
+    @Test
+    void readLegacyBoardArray() {
+        // games stored before the bitboard change were serialized straight from a ChessPiece[8][8]
+        var legacyBoard = new ChessPiece[8][8];
+        legacyBoard[0][4] = new ChessPiece(ChessGame.TeamColor.WHITE, ChessPiece.PieceType.KING);
+        legacyBoard[6][2] = new ChessPiece(ChessGame.TeamColor.BLACK, ChessPiece.PieceType.PAWN);
+        var json = "{\"board\":" + new Gson().toJson(legacyBoard) + "}";
+
+        var board = new Gson().fromJson(json, ChessBoard.class);
+
+        var expectedBoard = new ChessBoard();
+        expectedBoard.addPiece(new ChessPosition(1, 5), legacyBoard[0][4]);
+        expectedBoard.addPiece(new ChessPosition(7, 3), legacyBoard[6][2]);
+
+        Assertions.assertEquals(expectedBoard, board);
+        Assertions.assertEquals(json, new Gson().toJson(board));
+    }
+
+    @Test
+    void decodeToSharedInstances() {
+        // pieces and positions read by Gson should be the shared ones, not new copies
+        var json = new Gson().toJson(new ChessMove(new ChessPosition(2, 5), new ChessPosition(4, 5), null));
+        var move = new Gson().fromJson(json, ChessMove.class);
+        Assertions.assertSame(ChessPosition.of(2, 5), move.getStartPosition());
+        Assertions.assertSame(ChessPosition.of(4, 5), move.getEndPosition());
+
+        var board = new Gson().fromJson(new Gson().toJson(new ChessGame().getBoard()), ChessBoard.class);
+        Assertions.assertSame(ChessPiece.of(ChessGame.TeamColor.WHITE, ChessPiece.PieceType.KING),
+                board.getPiece(ChessPosition.of(1, 5)));
+    }
+}
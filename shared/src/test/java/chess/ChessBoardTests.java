@@ -0,0 +1,30 @@
+package chess;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+class ChessBoardTests {
+
+    @Test
+    void offBoardPositionsThrowWithoutChangingAnything() {
+        var board = new ChessBoard();
+        board.resetBoard();
+        long key = board.positionKey();
+        var queen = ChessPiece.of(ChessGame.TeamColor.WHITE, ChessPiece.PieceType.QUEEN);
+
+        // (9, 1) and (0, 9) both work out to real square numbers (64 wraps to a1, and 8 is a2)
+        for (var position : new ChessPosition[]{new ChessPosition(9, 1), new ChessPosition(0, 9),
+                new ChessPosition(1, 0), new ChessPosition(-1, 4)}) {
+            Assertions.assertThrows(IndexOutOfBoundsException.class, () -> board.getPiece(position));
+            Assertions.assertThrows(IndexOutOfBoundsException.class, () -> board.addPiece(position, queen));
+            Assertions.assertThrows(IndexOutOfBoundsException.class, () -> board.addPiece(position, null));
+            Assertions.assertThrows(IndexOutOfBoundsException.class,
+                    () -> board.isSquareAttacked(position, ChessGame.TeamColor.BLACK));
+        }
+        Assertions.assertThrows(IndexOutOfBoundsException.class, () -> board.getPiece(64));
+        Assertions.assertThrows(IndexOutOfBoundsException.class, () -> board.getPiece(-1));
+
+        Assertions.assertEquals(new ChessGame().getBoard(), board);
+        Assertions.assertEquals(key, board.positionKey());
+    }
+}
@@ -0,0 +1,87 @@
+package chess;
+
+import com.google.gson.ExclusionStrategy;
+import com.google.gson.FieldAttributes;
+import com.google.gson.GsonBuilder;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Random;
+
+class FenTests {
+
+    private static final String START = "rnbqkbnr/pppppppp/8/8/8/8/PPPPPPPP/RNBQKBNR w - - 0 1";
+
+    @Test
+    void startingPosition() {
+        Assertions.assertEquals(START, new ChessGame().toFen());
+        Assertions.assertEquals(new ChessGame(), ChessGame.fromFen(START));
+
+        // castling and en passant fields from other programs are skipped
+        var game = ChessGame.fromFen("rnbqkbnr/pppp1ppp/8/4p3/4P3/8/PPPP1PPP/RNBQKBNR b KQkq e3 0 2");
+        Assertions.assertEquals(ChessGame.TeamColor.BLACK, game.getTeamTurn());
+        Assertions.assertEquals(ChessPiece.PieceType.PAWN, game.getBoard().getPiece(new ChessPosition(5, 5)).getPieceType());
+
+        var endgame = ChessGame.fromFen("8/8/4k3/8/8/3K4/8/7R w - - 37 60");
+        Assertions.assertEquals(37, endgame.getHalfmoveClock());
+        Assertions.assertEquals("8/8/4k3/8/8/3K4/8/7R w - - 37 1", endgame.toFen());
+    }
+
+    @Test
+    void roundTripsRandomGamesLikeGson() throws InvalidMoveException {
+        // every position of some random games, including the finished ones, has to come back from
+        // FEN exactly as Gson would have stored it. FEN has no room for the earlier positions, so
+        // those are left out of the comparison.
+        var gson = new GsonBuilder().setExclusionStrategies(new ExcludeHistory()).create();
+        var random = new Random(20);
+        var fen = new StringBuilder();
+        for (int gameNumber = 0; gameNumber < 20; gameNumber++) {
+            var game = new ChessGame();
+            for (int ply = 0; ply < 200 && game.getTeamTurn() != null; ply++) {
+                fen.setLength(0);
+                var decoded = ChessGame.fromFen(game.toFen(fen).toString());
+                Assertions.assertEquals(gson.toJson(game), gson.toJson(decoded), fen.toString());
+                Assertions.assertEquals(game.positionKey(), decoded.positionKey());
+
+                var moves = new ArrayList<>(game.legalMoves());
+                if (moves.isEmpty()) {
+                    game.setTeamTurn(null);
+                } else {
+                    game.makeMove(moves.get(random.nextInt(moves.size())));
+                }
+            }
+            Assertions.assertEquals(gson.toJson(game), gson.toJson(ChessGame.fromFen(game.toFen())));
+        }
+    }
+
+    @Test
+    void rejectsMalformedStrings() {
+        String[] invalid = {
+            "",
+            "rnbqkbnr/pppppppp/8/8/8/8/PPPPPPPP/RNBQKBNR",
+            "rnbqkbnr/pppppppp/8/8/8/8/PPPPPPPP/RNBQKBNR x - - 0 1",
+            "rnbqkbnr/pppppppp/8/8/8/8/PPPPPPPP w - - 0 1",
+            "rnbqkbnr/ppppppppp/8/8/8/8/PPPPPPPP/RNBQKBNR w - - 0 1",
+            "rnbqkbnr/pppppppp/8/8/8/8/PPPPPPPP/RNBQKBN w - - 0 1",
+            "rnbqkbnr/pppppppp/8/8/8/8/PPPPPPPP/RNBQKBNX w - - 0 1",
+            "rnbqkbnr/pppppppp/8/8/8/8/8/PPPPPPPP/RNBQKBNR w - - 0 1",
+            "rnbqkbnr/pppppppp/8/8/8/8/PPPPPPPP/RNBQKBNR w - - x 1",
+        };
+        for (var fen : invalid) {
+            Assertions.assertThrows(IllegalArgumentException.class, () -> ChessGame.fromFen(fen), fen);
+        }
+    }
+
+    private static class ExcludeHistory implements ExclusionStrategy {
+        @Override
+        public boolean shouldSkipField(FieldAttributes field) {
+            return field.getName().equals("keyHistory") || field.getName().equals("historyCount");
+        }
+
+        @Override
+        public boolean shouldSkipClass(Class<?> type) {
+            return false;
+        }
+    }
+}
@@ -0,0 +1,119 @@
+package chess;
+
+import com.google.gson.Gson;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+class GameStatusTests {
+
+    @Test
+    void foolsMate() throws InvalidMoveException {
+        var game = new ChessGame();
+        game.makeMove(new ChessMove(new ChessPosition(2, 6), new ChessPosition(3, 6), null));
+        game.makeMove(new ChessMove(new ChessPosition(7, 5), new ChessPosition(5, 5), null));
+        game.makeMove(new ChessMove(new ChessPosition(2, 7), new ChessPosition(4, 7), null));
+
+        Assertions.assertEquals(new GameStatus(false, false, false, 20), game.getStatus(ChessGame.TeamColor.WHITE));
+
+        game.makeMove(new ChessMove(new ChessPosition(8, 4), new ChessPosition(4, 8), null));
+
+        Assertions.assertEquals(new GameStatus(true, true, false, 0), game.getStatus(ChessGame.TeamColor.WHITE));
+        Assertions.assertTrue(game.isInCheckmate(ChessGame.TeamColor.WHITE));
+        Assertions.assertFalse(game.isInStalemate(ChessGame.TeamColor.WHITE));
+    }
+
+    @Test
+    void statusFollowsBoardEdits() {
+        var game = new ChessGame();
+        game.setBoard(passoff.chess.TestUtilities.loadBoard("""
+                |k| | | | | | | |
+                | | | | | | | | |
+                | |Q| | | | | | |
+                | | | | | | | | |
+                | | | | | | | | |
+                | | | | | | | | |
+                | | | | | | | | |
+                | | | | | | | |K|
+                """));
+        Assertions.assertTrue(game.isInStalemate(ChessGame.TeamColor.BLACK));
+
+        // moving the queen straight through the board (not through makeMove) has to be noticed
+        game.getBoard().addPiece(new ChessPosition(6, 2), null);
+        game.getBoard().addPiece(new ChessPosition(6, 1),
+                new ChessPiece(ChessGame.TeamColor.WHITE, ChessPiece.PieceType.QUEEN));
+
+        var status = game.getStatus(ChessGame.TeamColor.BLACK);
+        Assertions.assertTrue(status.check());
+        Assertions.assertFalse(status.stalemate());
+        Assertions.assertEquals(1, status.legalMoveCount());
+    }
+
+    @Test
+    void threefoldRepetition() throws InvalidMoveException {
+        // both knights go out and back twice, so the starting position comes up a third time
+        var game = new ChessGame();
+        shuffleKnights(game);
+        Assertions.assertFalse(game.isRepetition());
+
+        // the history has to survive being stored and loaded again
+        game = new Gson().fromJson(new Gson().toJson(game), ChessGame.class);
+        shuffleKnights(game);
+
+        var status = game.getStatus(ChessGame.TeamColor.WHITE);
+        Assertions.assertTrue(status.repetition());
+        Assertions.assertTrue(status.draw());
+        Assertions.assertEquals(8, game.getHalfmoveClock());
+
+        // a pawn move means nothing before it can repeat
+        game.makeMove(new ChessMove(new ChessPosition(2, 5), new ChessPosition(4, 5), null));
+        Assertions.assertFalse(game.isRepetition());
+        Assertions.assertEquals(0, game.getHalfmoveClock());
+    }
+
+    @Test
+    void statusFollowsTheTurnBeingSet() throws InvalidMoveException {
+        var game = new ChessGame();
+        shuffleKnights(game);
+        shuffleKnights(game);
+        Assertions.assertTrue(game.getStatus(ChessGame.TeamColor.WHITE).repetition());
+
+        // with black to move it's a different position, which hasn't come up before
+        game.setTeamTurn(ChessGame.TeamColor.BLACK);
+        Assertions.assertFalse(game.getStatus(ChessGame.TeamColor.WHITE).repetition());
+
+        game.setTeamTurn(ChessGame.TeamColor.WHITE);
+        Assertions.assertTrue(game.getStatus(ChessGame.TeamColor.WHITE).repetition());
+    }
+
+    @Test
+    void repetitionAfterTheHistoryWrapsAround() throws InvalidMoveException {
+        var game = ChessGame.fromFen("7k/8/8/8/8/8/8/R6K w - - 0 1");
+        for (int i = 0; i < 40; i++) {
+            game.makeMove(new ChessMove(new ChessPosition(1, 1), new ChessPosition(2, 1), null));
+            game.makeMove(new ChessMove(new ChessPosition(8, 8), new ChessPosition(8, 7), null));
+            game.makeMove(new ChessMove(new ChessPosition(2, 1), new ChessPosition(1, 1), null));
+            game.makeMove(new ChessMove(new ChessPosition(8, 7), new ChessPosition(8, 8), null));
+        }
+        Assertions.assertEquals(160, game.getHalfmoveClock());
+        Assertions.assertTrue(game.isRepetition());
+    }
+
+    @Test
+    void fiftyMoveRule() throws InvalidMoveException {
+        var game = ChessGame.fromFen("7k/8/8/8/8/8/8/R6K w - - 99 80");
+        Assertions.assertFalse(game.getStatus(ChessGame.TeamColor.WHITE).fiftyMoves());
+
+        game.makeMove(new ChessMove(new ChessPosition(1, 1), new ChessPosition(2, 1), null));
+        var status = game.getStatus(ChessGame.TeamColor.BLACK);
+        Assertions.assertTrue(status.fiftyMoves());
+        Assertions.assertFalse(status.repetition());
+        Assertions.assertTrue(status.draw());
+    }
+
+    private static void shuffleKnights(ChessGame game) throws InvalidMoveException {
+        game.makeMove(new ChessMove(new ChessPosition(1, 7), new ChessPosition(3, 6), null));
+        game.makeMove(new ChessMove(new ChessPosition(8, 7), new ChessPosition(6, 6), null));
+        game.makeMove(new ChessMove(new ChessPosition(3, 6), new ChessPosition(1, 7), null));
+        game.makeMove(new ChessMove(new ChessPosition(6, 6), new ChessPosition(8, 7), null));
+    }
+}
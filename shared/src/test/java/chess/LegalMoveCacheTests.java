@@ -0,0 +1,100 @@
+package chess;
+
+import chess.moves.LegalMoveGenerator;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.Random;
+
+class LegalMoveCacheTests {
+
+    @Test
+    void cachedMovesMatchFreshGeneration() throws InvalidMoveException {
+        // every piece's moves, asked for twice per position, have to match what the generator finds from scratch
+        var random = new Random(25);
+        for (int gameNumber = 0; gameNumber < 20; gameNumber++) {
+            var game = new ChessGame();
+            for (int ply = 0; ply < 120 && game.getTeamTurn() != null; ply++) {
+                for (var team : ChessGame.TeamColor.values()) {
+                    Collection<ChessMove> fresh = new ArrayList<>();
+                    LegalMoveGenerator.generate(game.getBoard(), team, fresh);
+                    Assertions.assertEquals(new HashSet<>(fresh), new HashSet<>(game.legalMoves(team)));
+                    Assertions.assertEquals(fresh.size(), game.getStatus(team).legalMoveCount());
+                }
+                for (int square = 0; square < 64; square++) {
+                    var position = ChessPosition.of(square);
+                    Assertions.assertEquals(game.validMoves(position), game.validMoves(position));
+                }
+
+                var moves = new ArrayList<>(game.legalMoves());
+                if (moves.isEmpty()) {
+                    break;
+                }
+                game.makeMove(moves.get(random.nextInt(moves.size())));
+            }
+        }
+    }
+
+    @Test
+    void boardEditsInvalidateCachedMoves() throws InvalidMoveException {
+        var game = new ChessGame();
+        var knight = new ChessPosition(1, 2);
+        Assertions.assertEquals(2, game.validMoves(knight).size());
+
+        // clearing the pawn in front of the knight through the board (not makeMove) opens up d2
+        game.getBoard().addPiece(new ChessPosition(2, 4), null);
+        Assertions.assertEquals(3, game.validMoves(knight).size());
+        game.makeMove(new ChessMove(knight, new ChessPosition(2, 4), null));
+
+        // a move that was legal before the edit isn't once the knight has left
+        var oldMove = new ChessMove(knight, new ChessPosition(3, 3), null);
+        game.setTeamTurn(ChessGame.TeamColor.WHITE);
+        Assertions.assertThrows(InvalidMoveException.class, () -> game.makeMove(oldMove));
+    }
+
+    @Test
+    void setBoardClearsWhatTheSameKeyWouldKeep() throws InvalidMoveException {
+        // back at the start for the third time: the moves and the repetition are both cached
+        var game = new ChessGame();
+        for (int i = 0; i < 2; i++) {
+            game.makeMove(new ChessMove(new ChessPosition(1, 7), new ChessPosition(3, 6), null));
+            game.makeMove(new ChessMove(new ChessPosition(8, 7), new ChessPosition(6, 6), null));
+            game.makeMove(new ChessMove(new ChessPosition(3, 6), new ChessPosition(1, 7), null));
+            game.makeMove(new ChessMove(new ChessPosition(6, 6), new ChessPosition(8, 7), null));
+        }
+        Assertions.assertTrue(game.getStatus(ChessGame.TeamColor.WHITE).repetition());
+
+        // an identical board has the same key, but none of the history, so the repetition has to go
+        game.setBoard(new ChessGame().getBoard());
+        var status = game.getStatus(ChessGame.TeamColor.WHITE);
+        Assertions.assertFalse(status.repetition());
+        Assertions.assertEquals(20, status.legalMoveCount());
+        Assertions.assertEquals(20, game.legalMoves().size());
+    }
+
+    @Test
+    void offBoardMovesAreRejectedWithoutChangingTheGame() throws InvalidMoveException {
+        // (9, 1) -> (1, 1) packs the same as a1 -> b1, so it has to be turned away before the lookup
+        var game = ChessGame.fromFen("7k/8/8/8/8/8/8/R3K3 w - - 5 40");
+        game.makeMove(new ChessMove(new ChessPosition(1, 1), new ChessPosition(2, 1), null));
+        game.makeMove(new ChessMove(new ChessPosition(8, 8), new ChessPosition(8, 7), null));
+        game.makeMove(new ChessMove(new ChessPosition(2, 1), new ChessPosition(1, 1), null));
+        game.makeMove(new ChessMove(new ChessPosition(8, 7), new ChessPosition(8, 8), null));
+        String before = game.toFen();
+        long key = game.positionKey();
+
+        for (var move : new ChessMove[]{
+                new ChessMove(new ChessPosition(9, 1), new ChessPosition(1, 1), null),
+                new ChessMove(new ChessPosition(1, 1), new ChessPosition(1, 9), null),
+                new ChessMove(new ChessPosition(0, 5), new ChessPosition(1, 5), null)}) {
+            Assertions.assertThrows(InvalidMoveException.class, () -> game.makeMove(move));
+        }
+        Assertions.assertEquals(before, game.toFen());
+        Assertions.assertEquals(key, game.positionKey());
+        Assertions.assertEquals(9, game.getHalfmoveClock());
+        Assertions.assertFalse(game.isRepetition());
+    }
+}
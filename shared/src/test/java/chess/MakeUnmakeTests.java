@@ -0,0 +1,44 @@
+package chess;
+
+import chess.moves.Bitboards;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+class MakeUnmakeTests {
+
+    @Test
+    void unmakeRestoresCapture() {
+        var board = new ChessBoard();
+        board.resetBoard();
+        var original = board.cloneBoard();
+
+        // knight takes the pawn on d7, then goes back
+        board.makeMove(Bitboards.square(1, 2), Bitboards.square(7, 4), null);
+        Assertions.assertEquals(new ChessPiece(ChessGame.TeamColor.WHITE, ChessPiece.PieceType.KNIGHT),
+                board.getPiece(new ChessPosition(7, 4)));
+        Assertions.assertNull(board.getPiece(new ChessPosition(1, 2)));
+
+        board.unmakeMove();
+        Assertions.assertEquals(original, board);
+    }
+
+    @Test
+    void unmakeRestoresPromotionCapture() {
+        var board = new ChessBoard();
+        board.addPiece(new ChessPosition(7, 2), new ChessPiece(ChessGame.TeamColor.WHITE, ChessPiece.PieceType.PAWN));
+        board.addPiece(new ChessPosition(8, 1), new ChessPiece(ChessGame.TeamColor.BLACK, ChessPiece.PieceType.ROOK));
+        var original = board.cloneBoard();
+
+        board.makeMove(Bitboards.square(7, 2), Bitboards.square(8, 1), ChessPiece.PieceType.QUEEN);
+        Assertions.assertEquals(new ChessPiece(ChessGame.TeamColor.WHITE, ChessPiece.PieceType.QUEEN),
+                board.getPiece(new ChessPosition(8, 1)));
+
+        board.unmakeMove();
+        Assertions.assertEquals(original, board);
+    }
+
+    @Test
+    void unmakeWithoutMove() {
+        Assertions.assertThrows(IllegalStateException.class, () -> new ChessBoard().unmakeMove());
+    }
+}
@@ -0,0 +1,65 @@
+package chess;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.lang.reflect.Modifier;
+import java.util.ArrayList;
+import java.util.Random;
+
+class PackedGameTests {
+
+    // Object header with compressed class pointers
+    private static final int HEADER_BYTES = 12;
+
+    @Test
+    void roundTripsRandomGames() throws InvalidMoveException {
+        var random = new Random(23);
+        for (int gameNumber = 0; gameNumber < 20; gameNumber++) {
+            var game = new ChessGame();
+            for (int ply = 0; ply < 200 && game.getTeamTurn() != null; ply++) {
+                var packed = PackedGame.of(game);
+                var inflated = packed.toGame();
+                Assertions.assertEquals(game, inflated);
+                Assertions.assertEquals(game.toFen(), inflated.toFen());
+                Assertions.assertEquals(packed, PackedGame.of(inflated));
+                for (int square = 0; square < 64; square++) {
+                    Assertions.assertEquals(game.getBoard().getPiece(square), packed.getPiece(square));
+                }
+
+                var moves = new ArrayList<>(game.legalMoves());
+                if (moves.isEmpty()) {
+                    game.setTeamTurn(null);
+                } else {
+                    game.makeMove(moves.get(random.nextInt(moves.size())));
+                }
+            }
+
+            game.setTeamTurn(null);
+            var finished = PackedGame.of(game);
+            Assertions.assertNull(finished.getTeamTurn());
+            Assertions.assertEquals(game.getHalfmoveClock(), finished.getHalfmoveClock());
+        }
+    }
+
+    @Test
+    void bytesPerGame() {
+        // the documented figure has to match what the fields actually take: a header, then each
+        // primitive field, rounded up to the JVM's 8-byte object alignment
+        int bytes = HEADER_BYTES;
+        for (var field : PackedGame.class.getDeclaredFields()) {
+            if (Modifier.isStatic(field.getModifiers())) {
+                continue;
+            }
+            var type = field.getType();
+            Assertions.assertTrue(type == long.class || type == int.class, field.getName() + " isn't a primitive");
+            bytes += type == long.class ? Long.BYTES : Integer.BYTES;
+        }
+        bytes = (bytes + 7) & ~7;
+
+        Assertions.assertEquals(PackedGame.BYTES_PER_GAME, bytes);
+
+        // a million games in well under a hundred megabytes
+        Assertions.assertTrue(1_000_000L * PackedGame.BYTES_PER_GAME < 100L * 1024 * 1024);
+    }
+}
@@ -0,0 +1,77 @@
+package chess;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.util.Random;
+
+class SquareAttackTests {
+
+    private static final ChessPiece.PieceType[] TYPES = ChessPiece.PieceType.values();
+    private static final ChessGame.TeamColor[] COLORS = ChessGame.TeamColor.values();
+
+    @Test
+    void knightAndPawnAttacks() {
+        var board = new ChessBoard();
+        board.addPiece(new ChessPosition(4, 4), new ChessPiece(ChessGame.TeamColor.BLACK, ChessPiece.PieceType.PAWN));
+        board.addPiece(new ChessPosition(1, 2), new ChessPiece(ChessGame.TeamColor.WHITE, ChessPiece.PieceType.KNIGHT));
+
+        // black pawns attack downward
+        Assertions.assertTrue(board.isSquareAttacked(new ChessPosition(3, 3), ChessGame.TeamColor.BLACK));
+        Assertions.assertFalse(board.isSquareAttacked(new ChessPosition(5, 3), ChessGame.TeamColor.BLACK));
+
+        // the knight on b1 reaches c3 but not b2
+        Assertions.assertTrue(board.isSquareAttacked(new ChessPosition(3, 3), ChessGame.TeamColor.WHITE));
+        Assertions.assertFalse(board.isSquareAttacked(new ChessPosition(2, 2), ChessGame.TeamColor.WHITE));
+    }
+
+    @Test
+    void matchesMoveGenerationOnRandomBoards() {
+        // a square is attacked if some enemy piece could capture a piece standing there
+        var random = new Random(7);
+        for (int i = 0; i < 300; i++) {
+            var board = randomBoard(random);
+            for (int row = 1; row <= 8; row++) {
+                for (int col = 1; col <= 8; col++) {
+                    var position = new ChessPosition(row, col);
+                    for (var color : COLORS) {
+                        Assertions.assertEquals(attackedByMoves(board, position, color),
+                                board.isSquareAttacked(position, color), board + " " + position + " " + color);
+                    }
+                }
+            }
+        }
+    }
+
+    private ChessBoard randomBoard(Random random) {
+        var board = new ChessBoard();
+        for (int i = 0; i < 12; i++) {
+            var position = new ChessPosition(random.nextInt(8) + 1, random.nextInt(8) + 1);
+            board.addPiece(position, new ChessPiece(COLORS[random.nextInt(2)], TYPES[random.nextInt(TYPES.length)]));
+        }
+        return board;
+    }
+
+    // Put a piece of the other color on the square and see if any attacker's moves reach it
+    private boolean attackedByMoves(ChessBoard original, ChessPosition target, ChessGame.TeamColor byColor) {
+        var board = original.cloneBoard();
+        var defender = byColor == ChessGame.TeamColor.WHITE ? ChessGame.TeamColor.BLACK : ChessGame.TeamColor.WHITE;
+        board.addPiece(target, new ChessPiece(defender, ChessPiece.PieceType.QUEEN));
+
+        for (int row = 1; row <= 8; row++) {
+            for (int col = 1; col <= 8; col++) {
+                var position = new ChessPosition(row, col);
+                var piece = board.getPiece(position);
+                if (piece == null || piece.getTeamColor() != byColor) {
+                    continue;
+                }
+                for (var move : piece.pieceMoves(board, position)) {
+                    if (move.getEndPosition().equals(target)) {
+                        return true;
+                    }
+                }
+            }
+        }
+        return false;
+    }
+}
@@ -0,0 +1,56 @@
+package chess;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Random;
+
+class ZobristTests {
+
+    @Test
+    void incrementalKeyMatchesRebuiltBoard() throws InvalidMoveException {
+        var random = new Random(7);
+        var game = new ChessGame();
+        for (int ply = 0; ply < 200; ply++) {
+            var moves = new ArrayList<>(game.legalMoves());
+            if (moves.isEmpty()) {
+                break;
+            }
+            game.makeMove(moves.get(random.nextInt(moves.size())));
+
+            // build the same board from scratch and compare keys
+            var rebuilt = new ChessBoard();
+            var pieces = game.getBoard().toArray();
+            for (int row = 1; row <= 8; row++) {
+                for (int col = 1; col <= 8; col++) {
+                    rebuilt.addPiece(new ChessPosition(row, col), pieces[row - 1][col - 1]);
+                }
+            }
+            Assertions.assertEquals(rebuilt.positionKey(), game.getBoard().positionKey());
+        }
+    }
+
+    @Test
+    void unmakeRestoresKey() {
+        var board = new ChessGame().getBoard();
+        long key = board.positionKey();
+
+        board.makeMove(12, 28, null);
+        Assertions.assertNotEquals(key, board.positionKey());
+        board.unmakeMove();
+        Assertions.assertEquals(key, board.positionKey());
+        Assertions.assertEquals(key, board.cloneBoard().positionKey());
+    }
+
+    @Test
+    void sideToMoveChangesGameKey() {
+        var white = new ChessGame();
+        var black = new ChessGame();
+        black.setTeamTurn(ChessGame.TeamColor.BLACK);
+
+        Assertions.assertEquals(white.getBoard().positionKey(), black.getBoard().positionKey());
+        Assertions.assertNotEquals(white.positionKey(), black.positionKey());
+        Assertions.assertNotEquals(white.hashCode(), black.hashCode());
+    }
+}
@@ -0,0 +1,156 @@
+package chess.engine;
+
+import chess.ChessGame;
+import chess.ChessMove;
+import chess.ChessPosition;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+class EngineTests {
+
+    @Test
+    void findsBackRankMate() {
+        var game = new ChessGame();
+        game.setBoard(passoff.chess.TestUtilities.loadBoard("""
+                | | | | | | |k| |
+                | | | | | |p|p|p|
+                | | | | | | | | |
+                | | | | | | | | |
+                | | | | | | | | |
+                | | | | | | | | |
+                | | | | | |P|P|P|
+                |R| | | | | |K| |
+                """));
+        var before = game.getBoard().cloneBoard();
+
+        var result = new Engine().search(game, SearchLimits.depth(4));
+
+        Assertions.assertEquals(new ChessMove(new ChessPosition(1, 1), new ChessPosition(8, 1), null), result.bestMove());
+        Assertions.assertEquals(Engine.MATE - 1, result.score());
+        Assertions.assertTrue(result.isMate());
+        Assertions.assertEquals(before, game.getBoard());
+    }
+
+    @Test
+    void takesHangingQueen() {
+        var game = new ChessGame();
+        game.setBoard(passoff.chess.TestUtilities.loadBoard("""
+                | | | | |k| | | |
+                | | | | | | | | |
+                | | | | | | | | |
+                | | | |q| | | | |
+                | | | | | | | | |
+                | | | | | | | | |
+                | | | | | | | | |
+                | | | |R|K| | | |
+                """));
+
+        var result = new Engine().search(game, SearchLimits.depth(3));
+
+        Assertions.assertEquals(new ChessMove(new ChessPosition(1, 4), new ChessPosition(5, 4), null), result.bestMove());
+        Assertions.assertEquals(result.bestMove(), result.principalVariation().get(0));
+        Assertions.assertTrue(result.score() > 300);
+    }
+
+    @Test
+    void respectsNodeBudget() {
+        var result = new Engine().search(new ChessGame(), SearchLimits.depth(SearchLimits.MAX_DEPTH).withNodes(5000));
+
+        Assertions.assertNotNull(result.bestMove());
+        Assertions.assertTrue(result.nodes() <= 5000);
+        Assertions.assertTrue(result.depth() >= 1);
+    }
+
+    @Test
+    void stopsWhenAsked() throws InterruptedException {
+        var engine = new Engine();
+        var stopper = new Thread(() -> {
+            try {
+                Thread.sleep(100);
+            } catch (InterruptedException e) {
+                return;
+            }
+            engine.stop();
+        });
+        stopper.start();
+
+        // with no budget at all, only stop() can end this search in time
+        long start = System.nanoTime();
+        var result = engine.search(new ChessGame(), SearchLimits.depth(SearchLimits.MAX_DEPTH));
+        stopper.join();
+
+        Assertions.assertNotNull(result.bestMove());
+        Assertions.assertTrue(System.nanoTime() - start < 5_000_000_000L);
+    }
+
+    @Test
+    void helperThreadsAgreeOnMate() {
+        var game = new ChessGame();
+        game.setBoard(passoff.chess.TestUtilities.loadBoard("""
+                | | | | | | |k| |
+                | | | | | |p|p|p|
+                | | | | | | | | |
+                | | | | | | | | |
+                | | | | | | | | |
+                | | | | | | | | |
+                | | | | | |P|P|P|
+                |R| | | | | |K| |
+                """));
+
+        try (var engine = new Engine()) {
+            engine.setThreads(4);
+            var result = engine.search(game, SearchLimits.depth(4));
+            Assertions.assertEquals(new ChessPosition(8, 1), result.bestMove().getEndPosition());
+            Assertions.assertEquals(Engine.MATE - 1, result.score());
+            Assertions.assertEquals(4, engine.getThreads());
+        }
+    }
+
+    @Test
+    void speedupReportCoversEveryThreadCount() {
+        var report = SmpBenchmark.speedupReport(new ChessGame(), 3, 2);
+        Assertions.assertTrue(report.contains("threads=1 depth=3"));
+        Assertions.assertTrue(report.contains("threads=2 depth=3"));
+    }
+
+    @Test
+    void quiescenceSeesTheRecapture() {
+        var game = new ChessGame();
+        game.setBoard(passoff.chess.TestUtilities.loadBoard("""
+                | | | | |k| | | |
+                | | | | | | | | |
+                | | | | |p| | | |
+                | | | |p| | | | |
+                | | | | | | | | |
+                | | | | | | | | |
+                | | | | | | | | |
+                | | | |Q|K| | | |
+                """));
+        var pawn = new ChessPosition(5, 4);
+
+        // one ply with nothing after it, taking the pawn looks free
+        try (var engine = new Engine()) {
+            engine.setOptions(SearchOptions.NONE);
+            Assertions.assertEquals(pawn, engine.search(game, SearchLimits.depth(1)).bestMove().getEndPosition());
+        }
+
+        // quiescence plays out the pawn taking the queen back
+        try (var engine = new Engine()) {
+            Assertions.assertNotEquals(pawn, engine.search(game, SearchLimits.depth(1)).bestMove().getEndPosition());
+        }
+    }
+
+    @Test
+    void optionsReportCoversEveryFeature() {
+        var report = SearchOptionsBenchmark.report(new ChessGame(), 3);
+        Assertions.assertEquals(6, report.lines().count());
+        Assertions.assertTrue(report.contains("no late-move reductions"));
+    }
+
+    @Test
+    void noMoveWhenGameIsOver() {
+        var game = new ChessGame();
+        game.setTeamTurn(null);
+        Assertions.assertNull(new Engine().search(game, SearchLimits.depth(3)).bestMove());
+    }
+}
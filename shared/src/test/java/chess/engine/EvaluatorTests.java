@@ -0,0 +1,87 @@
+package chess.engine;
+
+import chess.ChessBoard;
+import chess.ChessGame;
+import chess.moves.LegalMoveGenerator;
+import chess.moves.Move;
+import chess.moves.MoveList;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.util.Random;
+
+class EvaluatorTests {
+
+    @Test
+    void startingPositionIsEven() {
+        var evaluator = new PieceSquareEvaluator();
+        Assertions.assertEquals(0, evaluator.evaluate(new ChessGame()));
+    }
+
+    @Test
+    void incrementalMatchesFromScratch() {
+        // play random moves (through promotions and captures), checking the running evaluation
+        // against a fresh one at every step, then take them all back
+        var random = new Random(3);
+        var board = new ChessGame().getBoard();
+        var evaluator = new PieceSquareEvaluator();
+        var fresh = new PieceSquareEvaluator();
+        var moves = new MoveList();
+        var color = ChessGame.TeamColor.WHITE;
+        evaluator.reset(board);
+
+        int played = 0;
+        for (; played < 300; played++) {
+            moves.clear();
+            LegalMoveGenerator.generate(board, color, moves);
+            if (moves.isEmpty()) {
+                break;
+            }
+            int move = moves.get(random.nextInt(moves.size()));
+            evaluator.makeMove(board, move);
+            board.makeMove(Move.from(move), Move.to(move), Move.promotion(move));
+            color = color == ChessGame.TeamColor.WHITE ? ChessGame.TeamColor.BLACK : ChessGame.TeamColor.WHITE;
+
+            fresh.reset(board);
+            Assertions.assertEquals(fresh.evaluate(color), evaluator.evaluate(color));
+        }
+
+        for (int i = 0; i < played; i++) {
+            board.unmakeMove();
+            evaluator.unmakeMove();
+        }
+        Assertions.assertEquals(0, evaluator.evaluate(ChessGame.TeamColor.WHITE));
+    }
+
+    @Test
+    void mirroredPositionsScoreTheSameForEachSide() {
+        ChessBoard white = passoff.chess.TestUtilities.loadBoard("""
+                | | | | |k| | | |
+                | | | | | | | | |
+                | | | | | | | | |
+                | | | | | | | | |
+                | | | |N| | | | |
+                | | | | | | | | |
+                |P|P| | | | | | |
+                | | | | |K| | | |
+                """);
+        ChessBoard black = passoff.chess.TestUtilities.loadBoard("""
+                | | | | |k| | | |
+                |p|p| | | | | | |
+                | | | | | | | | |
+                | | | |n| | | | |
+                | | | | | | | | |
+                | | | | | | | | |
+                | | | | | | | | |
+                | | | | |K| | | |
+                """);
+
+        var evaluator = new PieceSquareEvaluator();
+        evaluator.reset(white);
+        int whiteScore = evaluator.evaluate(ChessGame.TeamColor.WHITE);
+        evaluator.reset(black);
+
+        Assertions.assertTrue(whiteScore > 0);
+        Assertions.assertEquals(whiteScore, evaluator.evaluate(ChessGame.TeamColor.BLACK));
+    }
+}
@@ -0,0 +1,129 @@
+package chess.engine;
+
+import chess.ChessBoard;
+import chess.ChessGame;
+import chess.moves.Bitboards;
+import chess.moves.LegalMoveGenerator;
+import chess.moves.Move;
+import chess.moves.MoveList;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+class MoveOrderingTests {
+
+    @Test
+    void hashMoveThenCapturesThenKillers() {
+        var board = passoff.chess.TestUtilities.loadBoard("""
+                | | | | |k| | | |
+                | | | | | | | | |
+                | | | | | | | | |
+                | | | |q| | | | |
+                | | |P| | | | | |
+                | | | | | | | | |
+                | | | | | | | |P|
+                | | | |Q|K| | | |
+                """);
+        var moves = new MoveList();
+        LegalMoveGenerator.generate(board, ChessGame.TeamColor.WHITE, moves);
+
+        int hashMove = Move.of(Bitboards.square(2, 8), Bitboards.square(3, 8));
+        int pawnTakesQueen = Move.of(Bitboards.square(4, 3), Bitboards.square(5, 4));
+        int queenTakesQueen = Move.of(Bitboards.square(1, 4), Bitboards.square(5, 4));
+        int killer = Move.of(Bitboards.square(1, 5), Bitboards.square(2, 5));
+
+        var ordering = new MoveOrdering();
+        ordering.recordCutoff(board, killer, 4, 3);
+
+        var scores = new int[moves.size()];
+        ordering.score(board, moves, hashMove, 3, scores);
+
+        Assertions.assertEquals(hashMove, Move.withoutFlags(ordering.pickNext(moves, scores, 0)));
+        Assertions.assertEquals(pawnTakesQueen, Move.withoutFlags(ordering.pickNext(moves, scores, 1)));
+        Assertions.assertEquals(queenTakesQueen, Move.withoutFlags(ordering.pickNext(moves, scores, 2)));
+        Assertions.assertEquals(killer, Move.withoutFlags(ordering.pickNext(moves, scores, 3)));
+    }
+
+    @Test
+    void killersSortAheadOfOtherQuietMoves() {
+        var board = quietBoard();
+        int rookUp = Move.of(Bitboards.square(1, 1), Bitboards.square(5, 1));
+        int kingUp = Move.of(Bitboards.square(1, 5), Bitboards.square(2, 5));
+
+        var ordering = new MoveOrdering();
+        ordering.recordCutoff(board, rookUp, 1, 2);
+        ordering.recordCutoff(board, kingUp, 1, 2);
+        // recording the newest killer again mustn't push the older one out
+        ordering.recordCutoff(board, kingUp, 1, 2);
+
+        var moves = whiteMoves(board);
+        var scores = new int[moves.size()];
+        ordering.score(board, moves, Move.NONE, 2, scores);
+        Assertions.assertEquals(kingUp, Move.withoutFlags(ordering.pickNext(moves, scores, 0)));
+        Assertions.assertEquals(rookUp, Move.withoutFlags(ordering.pickNext(moves, scores, 1)));
+
+        // killers only count at their own ply, and a new search forgets them
+        ordering.score(board, moves, Move.NONE, 3, scores);
+        Assertions.assertTrue(bestScore(scores) < scoreOf(board, ordering, kingUp, 2));
+        ordering.newSearch();
+        Assertions.assertEquals(scoreOf(board, ordering, rookUp, 3), scoreOf(board, ordering, rookUp, 2));
+    }
+
+    @Test
+    void historyReordersQuietMovesAfterCutoffs() {
+        var board = quietBoard();
+        int rookUp = Move.of(Bitboards.square(1, 1), Bitboards.square(5, 1));
+        int rookAcross = Move.of(Bitboards.square(1, 1), Bitboards.square(1, 3));
+
+        // cutoffs at another ply, so the killers there don't come into it
+        var ordering = new MoveOrdering();
+        ordering.recordCutoff(board, rookAcross, 2, 10);
+        ordering.recordCutoff(board, rookUp, 5, 11);
+
+        var moves = whiteMoves(board);
+        var scores = new int[moves.size()];
+        ordering.score(board, moves, Move.NONE, 0, scores);
+        Assertions.assertEquals(rookUp, Move.withoutFlags(ordering.pickNext(moves, scores, 0)));
+        Assertions.assertEquals(rookAcross, Move.withoutFlags(ordering.pickNext(moves, scores, 1)));
+
+        // history is weighted by depth squared, and halved (not forgotten) by a new search
+        Assertions.assertEquals(25, scoreOf(board, ordering, rookUp, 0));
+        ordering.newSearch();
+        Assertions.assertEquals(12, scoreOf(board, ordering, rookUp, 0));
+        Assertions.assertEquals(2, scoreOf(board, ordering, rookAcross, 0));
+    }
+
+    private static ChessBoard quietBoard() {
+        return passoff.chess.TestUtilities.loadBoard("""
+                | | | | |k| | | |
+                | | | | | | | | |
+                | | | | | | | | |
+                | | | | | | | | |
+                | | | | | | | | |
+                | | | | | | | | |
+                | | | | | | | | |
+                |R| | | |K| | | |
+                """);
+    }
+
+    private static MoveList whiteMoves(ChessBoard board) {
+        var moves = new MoveList();
+        LegalMoveGenerator.generate(board, ChessGame.TeamColor.WHITE, moves);
+        return moves;
+    }
+
+    private static int scoreOf(ChessBoard board, MoveOrdering ordering, int move, int ply) {
+        var moves = new MoveList();
+        moves.add(move);
+        var scores = new int[1];
+        ordering.score(board, moves, Move.NONE, ply, scores);
+        return scores[0];
+    }
+
+    private static int bestScore(int[] scores) {
+        int best = Integer.MIN_VALUE;
+        for (int score : scores) {
+            best = Math.max(best, score);
+        }
+        return best;
+    }
+}
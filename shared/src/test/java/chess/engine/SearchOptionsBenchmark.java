@@ -0,0 +1,61 @@
+package chess.engine;
+
+import chess.ChessGame;
+import chess.moves.Move;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Measures what each selective search feature costs or saves: the same fixed-depth search is run with
+ * everything on, everything off, and each feature turned off on its own, reporting node count and
+ * time to depth. Each run gets a fresh transposition table.
+ */
+public final class SearchOptionsBenchmark {
+
+    private SearchOptionsBenchmark() {
+    }
+
+    /**
+     * Searches a game to a fixed depth under each set of options
+     *
+     * @param game  the position to search
+     * @param depth the depth every run searches to
+     * @return one line per set of options with the nodes, time, and best move
+     */
+    public static String report(ChessGame game, int depth) {
+        Map<String, SearchOptions> runs = new LinkedHashMap<>();
+        runs.put("all features", SearchOptions.DEFAULT);
+        runs.put("no quiescence", SearchOptions.DEFAULT.withQuiescence(false));
+        runs.put("no null move", SearchOptions.DEFAULT.withNullMove(false));
+        runs.put("no late-move reductions", SearchOptions.DEFAULT.withLateMoveReductions(false));
+        runs.put("no aspiration windows", SearchOptions.DEFAULT.withAspirationWindows(false));
+        runs.put("no features", SearchOptions.NONE);
+
+        // run once untimed, so the first run isn't the one paying for JIT compilation
+        try (var engine = new Engine(TranspositionTable.ofMegabytes(64))) {
+            engine.search(game, SearchLimits.depth(depth));
+        }
+
+        var report = new StringBuilder();
+        runs.forEach((name, options) -> {
+            try (var engine = new Engine(TranspositionTable.ofMegabytes(64))) {
+                engine.setOptions(options);
+                var result = engine.search(game, SearchLimits.depth(depth));
+                report.append(String.format("%-24s depth=%d nodes=%d time=%d ms score=%d best=%s%n", name,
+                        result.depth(), result.nodes(), result.elapsedMillis(), result.score(),
+                        Move.toString(Move.fromChessMove(result.bestMove()))));
+            }
+        });
+        return report.toString();
+    }
+
+    /**
+     * Prints the report for the starting position.
+     * Usage: SearchOptionsBenchmark [depth]
+     */
+    public static void main(String[] args) {
+        int depth = args.length > 0 ? Integer.parseInt(args[0]) : 6;
+        System.out.print(report(new ChessGame(), depth));
+    }
+}
@@ -0,0 +1,59 @@
+package chess.engine;
+
+import chess.ChessGame;
+
+/**
+ * Measures how the time to reach a fixed depth shrinks as threads are added. Each run gets a fresh
+ * transposition table, so no run is helped by results left over from the one before it.
+ */
+public final class SmpBenchmark {
+
+    private SmpBenchmark() {
+    }
+
+    /**
+     * Searches a game to a fixed depth with 1 to maxThreads threads
+     *
+     * @param game       the position to search
+     * @param depth      the depth every run searches to
+     * @param maxThreads the most threads to try
+     * @return one line per thread count with the time, nodes, and speedup over one thread
+     */
+    public static String speedupReport(ChessGame game, int depth, int maxThreads) {
+        var report = new StringBuilder();
+        long oneThreadNanos = 0;
+
+        // run once untimed, so the one-thread run isn't the one paying for JIT compilation
+        try (var engine = new Engine(TranspositionTable.ofMegabytes(64))) {
+            engine.search(game, SearchLimits.depth(depth));
+        }
+
+        for (int threads = 1; threads <= maxThreads; threads++) {
+            try (var engine = new Engine(TranspositionTable.ofMegabytes(64))) {
+                engine.setThreads(threads);
+
+                long start = System.nanoTime();
+                var result = engine.search(game, SearchLimits.depth(depth));
+                long elapsed = System.nanoTime() - start;
+                if (threads == 1) {
+                    oneThreadNanos = elapsed;
+                }
+
+                report.append(String.format("threads=%d depth=%d time=%d ms nodes=%d speedup=%.2fx%n",
+                        threads, result.depth(), elapsed / 1_000_000, result.nodes(),
+                        (double) oneThreadNanos / elapsed));
+            }
+        }
+        return report.toString();
+    }
+
+    /**
+     * Prints a speedup report for the starting position.
+     * Usage: SmpBenchmark [depth] [max threads]
+     */
+    public static void main(String[] args) {
+        int depth = args.length > 0 ? Integer.parseInt(args[0]) : 6;
+        int maxThreads = args.length > 1 ? Integer.parseInt(args[1]) : Runtime.getRuntime().availableProcessors();
+        System.out.print(speedupReport(new ChessGame(), depth, maxThreads));
+    }
+}
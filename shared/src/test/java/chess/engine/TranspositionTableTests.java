@@ -0,0 +1,85 @@
+package chess.engine;
+
+import chess.ChessGame;
+import chess.moves.Move;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.SplittableRandom;
+import java.util.concurrent.atomic.AtomicInteger;
+
+class TranspositionTableTests {
+
+    @Test
+    void storeAndProbe() {
+        var table = new TranspositionTable(1024);
+        long key = new ChessGame().positionKey();
+        int move = Move.of(12, 28);
+
+        Assertions.assertEquals(0, table.probe(key));
+        table.store(key, 7, -350, TranspositionTable.UPPER_BOUND, move);
+
+        long entry = table.probe(key);
+        Assertions.assertEquals(move, TranspositionTable.move(entry));
+        Assertions.assertEquals(-350, TranspositionTable.score(entry));
+        Assertions.assertEquals(7, TranspositionTable.depth(entry));
+        Assertions.assertEquals(TranspositionTable.UPPER_BOUND, TranspositionTable.bound(entry));
+
+        // another key landing in the same slot is a miss, not the wrong entry
+        Assertions.assertEquals(0, table.probe(key + 1024));
+        Assertions.assertEquals(1.0 / 3, table.hitRate());
+        Assertions.assertEquals(1.0 / 1024, table.occupancy());
+    }
+
+    @Test
+    void shallowerSearchKeepsDeeperEntry() {
+        var table = new TranspositionTable(16);
+        table.store(99, 6, 10, TranspositionTable.EXACT, Move.of(1, 2));
+        table.store(99, 3, 20, TranspositionTable.EXACT, Move.NONE);
+        Assertions.assertEquals(6, TranspositionTable.depth(table.probe(99)));
+
+        table.store(99, 8, 30, TranspositionTable.LOWER_BOUND, Move.NONE);
+        long entry = table.probe(99);
+        Assertions.assertEquals(30, TranspositionTable.score(entry));
+        Assertions.assertEquals(Move.of(1, 2), TranspositionTable.move(entry));
+    }
+
+    @Test
+    void sizeMustBePowerOfTwo() {
+        Assertions.assertThrows(IllegalArgumentException.class, () -> new TranspositionTable(1000));
+        Assertions.assertEquals(65536, TranspositionTable.ofMegabytes(1).capacity());
+    }
+
+    @Test
+    void concurrentWritersNeverMixEntries() throws InterruptedException {
+        // a tiny table so threads keep overwriting each other's slots. Every entry's score is derived
+        // from its key, so any hit with a mismatched score would be a torn read slipping through
+        var table = new TranspositionTable(64);
+        var mismatches = new AtomicInteger();
+        var threads = new ArrayList<Thread>();
+
+        for (int t = 0; t < 4; t++) {
+            var random = new SplittableRandom(t);
+            threads.add(new Thread(() -> {
+                for (int i = 0; i < 200_000; i++) {
+                    long key = random.nextLong(1, 5000);
+                    long entry = table.probe(key);
+                    if (entry != 0 && TranspositionTable.score(entry) != (int) (key * 31)) {
+                        mismatches.incrementAndGet();
+                    }
+                    table.store(key, 1, (int) (key * 31), TranspositionTable.EXACT, Move.NONE);
+                }
+            }));
+        }
+        for (var thread : threads) {
+            thread.start();
+        }
+        for (var thread : threads) {
+            thread.join();
+        }
+
+        Assertions.assertEquals(0, mismatches.get());
+        Assertions.assertTrue(table.hits() > 0);
+    }
+}
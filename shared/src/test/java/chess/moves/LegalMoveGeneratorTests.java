@@ -0,0 +1,101 @@
+package chess.moves;
+
+import chess.*;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Random;
+
+class LegalMoveGeneratorTests {
+
+    @Test
+    void startingPosition() {
+        Assertions.assertEquals(20, new ChessGame().legalMoves().size());
+    }
+
+    @Test
+    void pinnedPieceStaysOnLine() {
+        var game = new ChessGame();
+        game.setBoard(passoff.chess.TestUtilities.loadBoard("""
+                | | | | |k| | | |
+                | | | | |r| | | |
+                | | | | | | | | |
+                | | | | | | | | |
+                | | | | |R| | | |
+                | | | | | | | | |
+                | | | | | | | | |
+                | | | | |K| | | |
+                """));
+
+        // the white rook can slide along its column up to the black rook, but not sideways
+        var rookMoves = game.validMoves(new ChessPosition(4, 5));
+        Assertions.assertEquals(5, rookMoves.size());
+        for (var move : rookMoves) {
+            Assertions.assertEquals(5, move.getEndPosition().getColumn());
+        }
+    }
+
+    @Test
+    void onlyEscapeIsCapturingChecker() {
+        var board = passoff.chess.TestUtilities.loadBoard("""
+                |k| | |R| | | | |
+                |p|p| | | | | | |
+                | | |n| | | | | |
+                | | | | | | | | |
+                | | | | | | | | |
+                | | | | | | | | |
+                | | | | | | | | |
+                | | | | | | | |K|
+                """);
+        Assertions.assertTrue(LegalMoveGenerator.hasAnyLegalMove(board, ChessGame.TeamColor.BLACK));
+
+        // without the knight to take the rook, it's mate
+        board.addPiece(new ChessPosition(6, 3), null);
+        Assertions.assertFalse(LegalMoveGenerator.hasAnyLegalMove(board, ChessGame.TeamColor.BLACK));
+    }
+
+    @Test
+    void matchesMakeAndTestOnRandomGames() throws InvalidMoveException {
+        // play random games, and at every position compare the generator against making each
+        // pseudo-legal move and testing the king
+        var random = new Random(42);
+        for (int gameNumber = 0; gameNumber < 40; gameNumber++) {
+            var game = new ChessGame();
+            for (int ply = 0; ply < 150; ply++) {
+                var color = game.getTeamTurn();
+                var expected = makeAndTest(game.getBoard(), color);
+                var actual = new ArrayList<>(game.legalMoves());
+
+                Assertions.assertEquals(new HashSet<>(expected), new HashSet<>(actual), game.getBoard().toString());
+                Assertions.assertEquals(expected.size(), actual.size());
+                Assertions.assertEquals(!expected.isEmpty(), LegalMoveGenerator.hasAnyLegalMove(game.getBoard(), color));
+                if (actual.isEmpty()) {
+                    break;
+                }
+                game.makeMove(actual.get(random.nextInt(actual.size())));
+            }
+        }
+    }
+
+    private List<ChessMove> makeAndTest(ChessBoard board, ChessGame.TeamColor color) {
+        List<ChessMove> moves = new ArrayList<>();
+        var enemy = color == ChessGame.TeamColor.WHITE ? ChessGame.TeamColor.BLACK : ChessGame.TeamColor.WHITE;
+
+        for (long pieces = board.getPieces(color); pieces != 0; pieces &= pieces - 1) {
+            var position = Bitboards.position(Long.numberOfTrailingZeros(pieces));
+            for (var move : board.getPiece(position).pieceMoves(board, position)) {
+                board.makeMove(Bitboards.square(move.getStartPosition()), Bitboards.square(move.getEndPosition()),
+                        move.getPromotionPiece());
+                var king = board.locateKing(color);
+                if (king == null || !board.isSquareAttacked(king, enemy)) {
+                    moves.add(move);
+                }
+                board.unmakeMove();
+            }
+        }
+        return moves;
+    }
+}
@@ -0,0 +1,49 @@
+package chess.moves;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.net.URL;
+import java.net.URLClassLoader;
+import java.util.Random;
+
+class MagicBitboardsTests {
+
+    @Test
+    void emptyBoardAttacks() {
+        // a rook in the corner sees its whole row and column, a bishop the long diagonal
+        Assertions.assertEquals((Bitboards.FILE_A | Bitboards.RANK_1) & ~1L, MagicBitboards.rookAttacks(0, 0));
+        Assertions.assertEquals(0x8040201008040200L, MagicBitboards.bishopAttacks(0, 0));
+    }
+
+    @Test
+    void matchesRayWalkOnRandomBoards() {
+        // compare the table lookups against walking each ray square by square
+        var random = new Random(240);
+        for (int i = 0; i < 2000; i++) {
+            long occupied = random.nextLong() & random.nextLong();
+            for (int square = 0; square < 64; square++) {
+                Assertions.assertEquals(MagicBitboards.slidingRookAttacks(square, occupied),
+                        MagicBitboards.rookAttacks(square, occupied));
+                Assertions.assertEquals(MagicBitboards.slidingBishopAttacks(square, occupied),
+                        MagicBitboards.bishopAttacks(square, occupied));
+            }
+        }
+    }
+
+    @Test
+    void loadsBeforeBitboards() throws Exception {
+        // in a fresh class loader, so this JVM's copies (which some other test may have loaded in either
+        // order) don't count: touching MagicBitboards first mustn't need Bitboards to be set up already
+        var classes = MagicBitboards.class.getProtectionDomain().getCodeSource().getLocation();
+        try (var loader = new URLClassLoader(new URL[]{classes}, ClassLoader.getPlatformClassLoader())) {
+            var magic = Class.forName(MagicBitboards.class.getName(), true, loader);
+            Assertions.assertEquals((Bitboards.FILE_A | Bitboards.RANK_1) & ~1L,
+                    magic.getMethod("rookAttacks", int.class, long.class).invoke(null, 0, 0L));
+
+            var bitboards = Class.forName(Bitboards.class.getName(), true, loader);
+            Assertions.assertEquals(Bitboards.between(0, 63),
+                    bitboards.getMethod("between", int.class, int.class).invoke(null, 0, 63));
+        }
+    }
+}
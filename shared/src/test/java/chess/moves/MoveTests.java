@@ -0,0 +1,40 @@
+package chess.moves;
+
+import chess.*;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.util.HashSet;
+
+class MoveTests {
+
+    @Test
+    void packAndUnpack() {
+        var chessMove = new ChessMove(new ChessPosition(7, 1), new ChessPosition(8, 2), ChessPiece.PieceType.KNIGHT);
+        int move = Move.fromChessMove(chessMove);
+
+        Assertions.assertEquals(Bitboards.square(7, 1), Move.from(move));
+        Assertions.assertEquals(Bitboards.square(8, 2), Move.to(move));
+        Assertions.assertEquals(ChessPiece.PieceType.KNIGHT, Move.promotion(move));
+        Assertions.assertFalse(Move.isCapture(move));
+        Assertions.assertEquals(chessMove, Move.toChessMove(move | Move.CAPTURE));
+        Assertions.assertEquals(move, Move.withoutFlags(move | Move.CAPTURE));
+        Assertions.assertEquals("a7b8n", Move.toString(move));
+    }
+
+    @Test
+    void reusedListMatchesCollection() {
+        var game = new ChessGame();
+        var moves = new MoveList();
+
+        // fill the list twice to make sure clearing it leaves nothing behind
+        LegalMoveGenerator.generate(game.getBoard(), ChessGame.TeamColor.WHITE, moves);
+        moves.clear();
+        LegalMoveGenerator.generate(game.getBoard(), ChessGame.TeamColor.WHITE, moves);
+
+        var converted = new HashSet<ChessMove>();
+        moves.addTo(converted);
+        Assertions.assertEquals(new HashSet<>(game.legalMoves()), converted);
+        Assertions.assertEquals(20, moves.size());
+    }
+}
@@ -0,0 +1,106 @@
+package chess.moves;
+
+import chess.*;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.util.Random;
+
+class StaticExchangeTests {
+
+    @Test
+    void pawnTakesDefendedKnight() {
+        var board = passoff.chess.TestUtilities.loadBoard("""
+                | | | | |k| | | |
+                | | | | | | | | |
+                | | | | |p| | | |
+                | | | |n| | | | |
+                | | | | |P| | | |
+                | | | | | | | | |
+                | | | | | | | | |
+                | | | | |K| | | |
+                """);
+        int move = Move.of(Bitboards.square(4, 5), Bitboards.square(5, 4), null, Move.CAPTURE);
+
+        Assertions.assertEquals(220, StaticExchange.see(board, move));
+        Assertions.assertTrue(StaticExchange.seeGreaterOrEqual(board, move, 220));
+        Assertions.assertFalse(StaticExchange.seeGreaterOrEqual(board, move, 221));
+    }
+
+    @Test
+    void rookBehindJoinsIn() {
+        var board = passoff.chess.TestUtilities.loadBoard("""
+                | | | |r| | |k| |
+                | | | | | | | | |
+                | | | | | | | | |
+                | | | |p| | | | |
+                | | | | | | | | |
+                | | | | | | | | |
+                | | | |R| | | | |
+                | | | |R| | |K| |
+                """);
+        int move = Move.of(Bitboards.square(2, 4), Bitboards.square(5, 4), null, Move.CAPTURE);
+        Assertions.assertEquals(100, StaticExchange.see(board, move));
+
+        // without the second rook, the first one is lost for a pawn
+        board.addPiece(new ChessPosition(1, 4), null);
+        Assertions.assertEquals(-400, StaticExchange.see(board, move));
+        Assertions.assertFalse(StaticExchange.seeGreaterOrEqual(board, move, 0));
+    }
+
+    @Test
+    void kingCannotTakeDefendedPiece() {
+        var board = passoff.chess.TestUtilities.loadBoard("""
+                | | | | |k| | | |
+                | | | |p| | | | |
+                | | | | | | | | |
+                | | | | | | | | |
+                | | | | | | | | |
+                | | | | | | | | |
+                | | | |Q| | | | |
+                | | | |R| | |K| |
+                """);
+        int move = Move.of(Bitboards.square(2, 4), Bitboards.square(7, 4), null, Move.CAPTURE);
+        Assertions.assertEquals(100, StaticExchange.see(board, move));
+
+        board.addPiece(new ChessPosition(1, 4), null);
+        Assertions.assertEquals(-800, StaticExchange.see(board, move));
+    }
+
+    @Test
+    void thresholdMatchesFullExchangeOnRandomGames() throws InvalidMoveException {
+        // at every capture in some random games, the early-exit threshold check has to agree with
+        // the full exchange both at its exact value and across a spread of thresholds
+        var random = new Random(19);
+        var moves = new MoveList();
+        var gain = new int[StaticExchange.MAX_EXCHANGE];
+        int captures = 0;
+        for (int gameNumber = 0; gameNumber < 20; gameNumber++) {
+            var game = new ChessGame();
+            for (int ply = 0; ply < 150 && game.getTeamTurn() != null; ply++) {
+                var board = game.getBoard();
+                moves.clear();
+                LegalMoveGenerator.generate(board, game.getTeamTurn(), moves);
+                if (moves.isEmpty()) {
+                    break;
+                }
+
+                for (int i = 0; i < moves.size(); i++) {
+                    int move = moves.get(i);
+                    if (!Move.isCapture(move) && Move.promotion(move) == null) {
+                        continue;
+                    }
+                    captures++;
+                    int see = StaticExchange.see(board, move, gain);
+                    Assertions.assertTrue(StaticExchange.seeGreaterOrEqual(board, move, see), board.toString());
+                    Assertions.assertFalse(StaticExchange.seeGreaterOrEqual(board, move, see + 1), board.toString());
+                    for (int threshold = -1000; threshold <= 1000; threshold += 50) {
+                        Assertions.assertEquals(see >= threshold, StaticExchange.seeGreaterOrEqual(board, move, threshold));
+                    }
+                }
+                game.makeMove(Move.toChessMove(moves.get(random.nextInt(moves.size()))));
+            }
+        }
+        Assertions.assertTrue(captures > 100);
+    }
+}
@@ -0,0 +1,24 @@
+package chess.perft;
+
+import chess.ChessGame;
+
+/**
+ * Command-line perft, kept with the tests so the shared jar doesn't print to System.out
+ */
+public final class PerftBenchmark {
+
+    private PerftBenchmark() {
+    }
+
+    /**
+     * Runs perft from the starting position and prints the divide report.
+     * Usage: PerftBenchmark [depth] [serial|parallel]
+     */
+    public static void main(String[] args) {
+        int depth = args.length > 0 ? Integer.parseInt(args[0]) : 5;
+        boolean parallel = args.length < 2 || args[1].equals("parallel");
+
+        var board = new ChessGame().getBoard();
+        System.out.print(Perft.run(board, ChessGame.TeamColor.WHITE, depth, parallel).report());
+    }
+}
@@ -0,0 +1,49 @@
+package chess.perft;
+
+import chess.ChessBoard;
+import chess.ChessGame;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.ForkJoinPool;
+
+class PerftTests {
+
+    // Published counts only hold while the tree has no castling or en passant in it, which
+    // keeps these at low depths
+    @Test
+    void startingPosition() {
+        var board = new ChessGame().getBoard();
+        Assertions.assertEquals(20, Perft.count(board, ChessGame.TeamColor.WHITE, 1));
+        Assertions.assertEquals(400, Perft.count(board, ChessGame.TeamColor.WHITE, 2));
+        Assertions.assertEquals(8902, Perft.count(board, ChessGame.TeamColor.WHITE, 3));
+        Assertions.assertEquals(new ChessGame().getBoard(), board);
+    }
+
+    @Test
+    void endgamePosition() {
+        ChessBoard board = passoff.chess.TestUtilities.loadBoard("""
+                | | | | | | | | |
+                | | |p| | | | | |
+                | | | |p| | | | |
+                |K|P| | | | | |r|
+                | |R| | | |p| |k|
+                | | | | | | | | |
+                | | | | |P| |P| |
+                | | | | | | | | |
+                """);
+        Assertions.assertEquals(14, Perft.count(board, ChessGame.TeamColor.WHITE, 1));
+        Assertions.assertEquals(191, Perft.count(board, ChessGame.TeamColor.WHITE, 2));
+    }
+
+    @Test
+    void parallelMatchesSerial() {
+        var board = new ChessGame().getBoard();
+        var serial = Perft.divide(board, ChessGame.TeamColor.WHITE, 3);
+        try (var pool = new ForkJoinPool(4)) {
+            Assertions.assertEquals(serial, Perft.parallelDivide(board, ChessGame.TeamColor.WHITE, 3, pool));
+        }
+        Assertions.assertEquals(20, serial.size());
+        Assertions.assertEquals(8902, Perft.run(board, ChessGame.TeamColor.WHITE, 3, true).nodes());
+    }
+}
@@ -0,0 +1,99 @@
+package chess.store;
+
+import chess.ChessGame;
+import chess.InvalidMoveException;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Random;
+
+class PositionStoreTests {
+
+    @Test
+    void addsAndCountsPositionsAcrossChunks() throws InvalidMoveException, IOException {
+        try (var store = PositionStore.inMemory()) {
+            var expectedCounts = addRandomGames(store, 24, 1000);
+            Assertions.assertEquals(expectedCounts.size(), store.size());
+            Assertions.assertTrue(store.size() > PositionStore.CHUNK_RECORDS);
+            assertMatches(store, expectedCounts);
+        }
+    }
+
+    @Test
+    void reopensMappedFile(@TempDir Path dir) throws InvalidMoveException, IOException {
+        var file = dir.resolve("positions.store");
+        Map<Long, Integer> expectedCounts;
+        try (var store = PositionStore.open(file)) {
+            expectedCounts = addRandomGames(store, 25, 100);
+        }
+
+        try (var store = PositionStore.open(file)) {
+            Assertions.assertEquals(expectedCounts.size(), store.size());
+            assertMatches(store, expectedCounts);
+
+            // the starting position is in every game, so adding it again only bumps its count
+            int record = store.add(new ChessGame());
+            Assertions.assertEquals(0, record);
+            Assertions.assertEquals(101, store.count(record));
+            Assertions.assertEquals(expectedCounts.size(), store.size());
+        }
+    }
+
+    @Test
+    void closedStoreCantBeUsed() throws IOException {
+        var store = PositionStore.inMemory();
+        int record = store.add(new ChessGame());
+        var cursor = store.cursor();
+        store.close();
+        store.close();
+
+        Assertions.assertThrows(IllegalStateException.class, () -> store.add(new ChessGame()));
+        Assertions.assertThrows(IllegalStateException.class, () -> store.find(new ChessGame().positionKey()));
+        Assertions.assertThrows(IllegalStateException.class, () -> store.count(record));
+        Assertions.assertThrows(IllegalStateException.class, cursor::next);
+    }
+
+    // Adds every position of some random games, returning how many times each key was added
+    private static Map<Long, Integer> addRandomGames(PositionStore store, long seed, int games) throws InvalidMoveException {
+        var random = new Random(seed);
+        Map<Long, Integer> counts = new HashMap<>();
+        for (int gameNumber = 0; gameNumber < games; gameNumber++) {
+            var game = new ChessGame();
+            for (int ply = 0; ply < 80; ply++) {
+                int record = store.add(game);
+                counts.merge(game.positionKey(), 1, Integer::sum);
+                Assertions.assertEquals(game.positionKey(), store.key(record));
+
+                var moves = new ArrayList<>(game.legalMoves());
+                if (moves.isEmpty()) {
+                    break;
+                }
+                game.makeMove(moves.get(random.nextInt(moves.size())));
+            }
+        }
+        return counts;
+    }
+
+    // Every record decodes back to a position with its own key, and was counted as often as it was added
+    private static void assertMatches(PositionStore store, Map<Long, Integer> expectedCounts) {
+        var cursor = store.cursor();
+        var game = new ChessGame();
+        int records = 0;
+        while (cursor.next()) {
+            game.setBoard(cursor.board());
+            game.setTeamTurn(cursor.teamTurn());
+            Assertions.assertEquals(cursor.key(), game.positionKey());
+            Assertions.assertEquals(expectedCounts.get(cursor.key()), cursor.count());
+            Assertions.assertEquals(cursor.record(), store.find(cursor.key()));
+            records++;
+        }
+        Assertions.assertEquals(store.size(), records);
+        Assertions.assertEquals(-1, store.find(12345L));
+    }
+}